@@ -0,0 +1,139 @@
+package htnl5.yarl.benchmarks;
+
+import htnl5.yarl.PolicyResult;
+import htnl5.yarl.circuitbreaker.CircuitBreakerPolicy;
+import htnl5.yarl.fallback.FallbackPolicy;
+import htnl5.yarl.noop.AsyncNoOpPolicy;
+import htnl5.yarl.noop.NoOpPolicy;
+import htnl5.yarl.retry.AsyncRetryPolicy;
+import htnl5.yarl.retry.RetryPolicy;
+import htnl5.yarl.wrap.PolicyWrap;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static htnl5.yarl.benchmarks.Fixtures.*;
+
+// Bytes allocated per call are checked against allocation-budgets.properties by AllocationGate.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AllocationBenchmark {
+  private NoOpPolicy<Integer> noOp;
+  private RetryPolicy<Integer> retry;
+  private CircuitBreakerPolicy<Integer, ?> circuitBreaker;
+  private CircuitBreakerPolicy<Integer, ?> advancedCircuitBreaker;
+  private FallbackPolicy<Integer> fallback;
+  private PolicyWrap<Integer> wrap;
+  private AsyncNoOpPolicy<Integer> asyncNoOp;
+  private AsyncRetryPolicy<Integer> asyncRetry;
+
+  @Setup
+  public void setup() {
+    noOp = NoOpPolicy.build();
+    retry = RetryPolicy.<Integer>builder()
+      .handle(ArithmeticException.class)
+      .maxRetryCount(1)
+      .build();
+    circuitBreaker = CircuitBreakerPolicy.<Integer>builder()
+      .failuresAllowedBeforeBreaking(Integer.MAX_VALUE)
+      .handle(ArithmeticException.class)
+      .build();
+    advancedCircuitBreaker = CircuitBreakerPolicy.<Integer>advancedBuilder(1d, Duration.ofSeconds(10),
+        Integer.MAX_VALUE, Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .build();
+    fallback = FallbackPolicy.<Integer>builder()
+      .handle(ArithmeticException.class)
+      .fallback(RESULT)
+      .build();
+    wrap = PolicyWrap.wrap(fallback, retry);
+    asyncNoOp = AsyncNoOpPolicy.build();
+    asyncRetry = AsyncRetryPolicy.<Integer>builder()
+      .handle(ArithmeticException.class)
+      .maxRetryCount(1)
+      .build();
+  }
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    circuitBreaker.reset();
+    advancedCircuitBreaker.reset();
+  }
+
+  @Benchmark
+  public Integer noOpExecute() throws Throwable {
+    return noOp.execute(AllocationBenchmark::action);
+  }
+
+  @Benchmark
+  public Integer retryExecute() throws Throwable {
+    return retry.execute(AllocationBenchmark::action);
+  }
+
+  @Benchmark
+  public Object retryExecuteHandledFailure() {
+    try {
+      return retry.execute(AllocationBenchmark::failingAction);
+    } catch (final Throwable e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public PolicyResult<Integer> retryExecuteAndCapture() {
+    return retry.executeAndCapture(AllocationBenchmark::action);
+  }
+
+  @Benchmark
+  public Integer circuitBreakerExecute() throws Throwable {
+    return circuitBreaker.execute(AllocationBenchmark::action);
+  }
+
+  @Benchmark
+  public Integer advancedCircuitBreakerExecute() throws Throwable {
+    return advancedCircuitBreaker.execute(AllocationBenchmark::action);
+  }
+
+  @Benchmark
+  public Integer fallbackExecute() throws Throwable {
+    return fallback.execute(AllocationBenchmark::action);
+  }
+
+  @Benchmark
+  public Integer fallbackExecuteHandledFailure() throws Throwable {
+    return fallback.execute(AllocationBenchmark::failingAction);
+  }
+
+  @Benchmark
+  public Integer wrapExecute() throws Throwable {
+    return wrap.execute(AllocationBenchmark::action);
+  }
+
+  @Benchmark
+  public Integer asyncNoOpExecute() {
+    return asyncNoOp.execute(AllocationBenchmark::asyncAction).join();
+  }
+
+  @Benchmark
+  public Integer asyncRetryExecute() {
+    return asyncRetry.execute(AllocationBenchmark::asyncAction).join();
+  }
+
+  private static Integer action() {
+    return RESULT;
+  }
+
+  private static Integer failingAction() {
+    throw HANDLED_EXCEPTION;
+  }
+
+  private static CompletableFuture<Integer> asyncAction() {
+    return COMPLETED_RESULT;
+  }
+}
@@ -0,0 +1,65 @@
+package htnl5.yarl.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Properties;
+
+public final class AllocationGate {
+  private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+  // Absorbs the measurement noise around whole-byte results, e.g. 72.0001 B/op against a budget of 72.
+  private static final double TOLERANCE_BYTES = 0.5;
+
+  private AllocationGate() {
+  }
+
+  public static void main(final String[] args) throws Exception {
+    if (args.length != 1) throw new IllegalArgumentException("Usage: AllocationGate <budgets file>");
+    final var budgets = loadBudgets(Path.of(args[0]));
+    final var options = new OptionsBuilder()
+      .include(AllocationBenchmark.class.getName())
+      .addProfiler(GCProfiler.class)
+      .build();
+
+    final var results = new Runner(options).run();
+
+    final var violations = new ArrayList<String>();
+    System.out.printf("%n%-40s %12s %12s%n", "Benchmark", "B/op", "Budget");
+    for (final RunResult result : results) {
+      final var benchmark = result.getParams().getBenchmark();
+      final var name = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+      final var allocation = result.getSecondaryResults().get(ALLOCATION_METRIC);
+      if (allocation == null) throw new IllegalStateException("%s was not reported for %s.".formatted(ALLOCATION_METRIC,
+        name));
+      final var bytesPerOp = allocation.getScore();
+      final var budget = budgets.getProperty(name);
+      System.out.printf("%-40s %12.1f %12s%n", name, bytesPerOp, budget == null ? "-" : budget);
+      if (budget == null) {
+        violations.add("%s has no allocation budget.".formatted(name));
+      } else if (bytesPerOp > Double.parseDouble(budget) + TOLERANCE_BYTES) {
+        violations.add("%s allocates %.1f B/op, budget is %s B/op.".formatted(name, bytesPerOp, budget));
+      }
+    }
+
+    if (!violations.isEmpty()) {
+      System.err.println();
+      violations.forEach(System.err::println);
+      System.exit(1);
+    }
+  }
+
+  private static Properties loadBudgets(final Path path) throws IOException {
+    final var budgets = new Properties();
+    try (final Reader reader = Files.newBufferedReader(path)) {
+      budgets.load(reader);
+    }
+    return budgets;
+  }
+}
@@ -0,0 +1,64 @@
+package htnl5.yarl.benchmarks;
+
+import htnl5.yarl.retry.AsyncRetryPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static htnl5.yarl.benchmarks.Fixtures.COMPLETED_RESULT;
+import static htnl5.yarl.benchmarks.Fixtures.FAILED_RESULT;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AsyncRetryBenchmark {
+  private AsyncRetryPolicy<Integer> policy;
+
+  @Setup
+  public void setup() {
+    policy = AsyncRetryPolicy.<Integer>builder()
+      .handle(ArithmeticException.class)
+      .maxRetryCount(1)
+      .build();
+  }
+
+  @Benchmark
+  public Integer baseline() {
+    return action().join();
+  }
+
+  @Benchmark
+  public Integer success() {
+    return policy.execute(AsyncRetryBenchmark::action).join();
+  }
+
+  @Benchmark
+  public Object baselineFailure() {
+    try {
+      return failingAction().join();
+    } catch (final RuntimeException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object handledFailure() {
+    try {
+      return policy.execute(AsyncRetryBenchmark::failingAction).join();
+    } catch (final RuntimeException e) {
+      return e;
+    }
+  }
+
+  private static CompletableFuture<Integer> action() {
+    return COMPLETED_RESULT;
+  }
+
+  private static CompletableFuture<Integer> failingAction() {
+    return FAILED_RESULT;
+  }
+}
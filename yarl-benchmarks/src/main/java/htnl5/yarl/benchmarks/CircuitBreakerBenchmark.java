@@ -0,0 +1,80 @@
+package htnl5.yarl.benchmarks;
+
+import htnl5.yarl.circuitbreaker.CircuitBreakerPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static htnl5.yarl.benchmarks.Fixtures.HANDLED_EXCEPTION;
+import static htnl5.yarl.benchmarks.Fixtures.RESULT;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CircuitBreakerBenchmark {
+  @Param({"consecutive", "advanced"})
+  public String controller;
+
+  private CircuitBreakerPolicy<Integer, ?> policy;
+
+  @Setup
+  public void setup() {
+    // Thresholds are out of reach so that the handled-failure case keeps measuring a closed circuit.
+    policy = switch (controller) {
+      case "consecutive" -> CircuitBreakerPolicy.<Integer>builder()
+        .failuresAllowedBeforeBreaking(Integer.MAX_VALUE)
+        .handle(ArithmeticException.class)
+        .build();
+      case "advanced" -> CircuitBreakerPolicy.<Integer>advancedBuilder(1d, Duration.ofSeconds(10),
+          Integer.MAX_VALUE, Duration.ofSeconds(30))
+        .handle(ArithmeticException.class)
+        .build();
+      default -> throw new IllegalArgumentException("Unknown controller %s.".formatted(controller));
+    };
+  }
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    policy.reset();
+  }
+
+  @Benchmark
+  public Integer baseline() throws Throwable {
+    return action();
+  }
+
+  @Benchmark
+  public Integer success() throws Throwable {
+    return policy.execute(CircuitBreakerBenchmark::action);
+  }
+
+  @Benchmark
+  public Object baselineFailure() {
+    try {
+      return failingAction();
+    } catch (final ArithmeticException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object handledFailure() {
+    try {
+      return policy.execute(CircuitBreakerBenchmark::failingAction);
+    } catch (final Throwable e) {
+      return e;
+    }
+  }
+
+  private static Integer action() {
+    return RESULT;
+  }
+
+  private static Integer failingAction() {
+    throw HANDLED_EXCEPTION;
+  }
+}
@@ -0,0 +1,126 @@
+package htnl5.yarl.benchmarks;
+
+import htnl5.yarl.circuitbreaker.CircuitBreakerPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static htnl5.yarl.benchmarks.Fixtures.HANDLED_EXCEPTION;
+import static htnl5.yarl.benchmarks.Fixtures.RESULT;
+
+// Run with -prof htnl5.yarl.benchmarks.LockContentionProfiler to see how often callers park on the breaker's locks.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CircuitBreakerContentionBenchmark {
+  @Param({"advanced-rolling", "advanced-single", "advanced-striped", "consecutive"})
+  public String breaker;
+
+  @Param({"0", "0.01", "0.5"})
+  public double failureRate;
+
+  private CircuitBreakerPolicy<Integer, ?> policy;
+
+  @Setup
+  public void setup() {
+    // Thresholds are out of reach so that every failure mix keeps measuring a closed circuit.
+    policy = switch (breaker) {
+      case "advanced-rolling" -> CircuitBreakerPolicy.<Integer>advancedBuilder(1d, Duration.ofSeconds(10), 100,
+          Duration.ofSeconds(30))
+        .handle(ArithmeticException.class)
+        .build();
+      case "advanced-single" -> CircuitBreakerPolicy.<Integer>advancedBuilder(1d, Duration.ofMillis(100), 100,
+          Duration.ofSeconds(30))
+        .handle(ArithmeticException.class)
+        .build();
+      case "advanced-striped" -> CircuitBreakerPolicy.<Integer>advancedBuilder(1d, Duration.ofSeconds(10), 100,
+          Duration.ofSeconds(30))
+        .stripedHealthMetrics()
+        .handle(ArithmeticException.class)
+        .build();
+      case "consecutive" -> CircuitBreakerPolicy.<Integer>builder()
+        .failuresAllowedBeforeBreaking(Integer.MAX_VALUE)
+        .handle(ArithmeticException.class)
+        .build();
+      default -> throw new IllegalArgumentException("Unknown breaker %s.".formatted(breaker));
+    };
+  }
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    policy.reset();
+  }
+
+  @State(Scope.Thread)
+  public static class Outcomes {
+    private long period;
+    private long calls;
+
+    @Setup
+    public void setup(final CircuitBreakerContentionBenchmark benchmark) {
+      period = benchmark.failureRate == 0d ? 0 : Math.round(1d / benchmark.failureRate);
+    }
+
+    boolean nextFails() {
+      return period != 0 && ++calls % period == 0;
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object threads01(final Outcomes outcomes) {
+    return execute(outcomes);
+  }
+
+  @Benchmark
+  @Threads(2)
+  public Object threads02(final Outcomes outcomes) {
+    return execute(outcomes);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object threads04(final Outcomes outcomes) {
+    return execute(outcomes);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Object threads08(final Outcomes outcomes) {
+    return execute(outcomes);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public Object threads16(final Outcomes outcomes) {
+    return execute(outcomes);
+  }
+
+  @Benchmark
+  @Threads(32)
+  public Object threads32(final Outcomes outcomes) {
+    return execute(outcomes);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public Object threads64(final Outcomes outcomes) {
+    return execute(outcomes);
+  }
+
+  private Object execute(final Outcomes outcomes) {
+    final var fails = outcomes.nextFails();
+    try {
+      return policy.execute(() -> {
+        if (fails) throw HANDLED_EXCEPTION;
+        return RESULT;
+      });
+    } catch (final Throwable e) {
+      return e;
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package htnl5.yarl.benchmarks;
+
+import htnl5.yarl.PolicyResult;
+import htnl5.yarl.circuitbreaker.CircuitBreakerPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static htnl5.yarl.benchmarks.Fixtures.RESULT;
+
+// Cost of shedding a call while the circuit is open.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CircuitBreakerRejectionBenchmark {
+  @Param({"false", "true"})
+  public boolean stacklessRejections;
+
+  private CircuitBreakerPolicy<Integer, ?> policy;
+
+  @Setup
+  public void setup() throws Throwable {
+    final var builder = CircuitBreakerPolicy.<Integer>builder()
+      .failuresAllowedBeforeBreaking(1)
+      .durationOfBreak(Duration.ofDays(1))
+      .handleResult(RESULT);
+    if (stacklessRejections) builder.stacklessRejections();
+    policy = builder.build();
+    policy.execute(() -> RESULT);
+  }
+
+  @Benchmark
+  public Object execute() {
+    try {
+      return policy.execute(() -> RESULT);
+    } catch (final Throwable e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public PolicyResult<Integer> tryExecute() {
+    return policy.tryExecute(() -> RESULT);
+  }
+}
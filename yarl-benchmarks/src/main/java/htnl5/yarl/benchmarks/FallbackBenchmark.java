@@ -0,0 +1,59 @@
+package htnl5.yarl.benchmarks;
+
+import htnl5.yarl.fallback.FallbackPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static htnl5.yarl.benchmarks.Fixtures.HANDLED_EXCEPTION;
+import static htnl5.yarl.benchmarks.Fixtures.RESULT;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FallbackBenchmark {
+  private FallbackPolicy<Integer> policy;
+
+  @Setup
+  public void setup() {
+    policy = FallbackPolicy.<Integer>builder()
+      .handle(ArithmeticException.class)
+      .fallback(RESULT)
+      .build();
+  }
+
+  @Benchmark
+  public Integer baseline() throws Throwable {
+    return action();
+  }
+
+  @Benchmark
+  public Integer success() throws Throwable {
+    return policy.execute(FallbackBenchmark::action);
+  }
+
+  @Benchmark
+  public Integer baselineFailure() {
+    try {
+      return failingAction();
+    } catch (final ArithmeticException e) {
+      return RESULT;
+    }
+  }
+
+  @Benchmark
+  public Integer handledFailure() throws Throwable {
+    return policy.execute(FallbackBenchmark::failingAction);
+  }
+
+  private static Integer action() {
+    return RESULT;
+  }
+
+  private static Integer failingAction() {
+    throw HANDLED_EXCEPTION;
+  }
+}
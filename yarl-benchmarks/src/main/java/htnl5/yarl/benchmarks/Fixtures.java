@@ -0,0 +1,24 @@
+package htnl5.yarl.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+
+final class Fixtures {
+  static final Integer RESULT = 42;
+
+  // Pre-allocated and stackless so that the failure cases measure the policy, not Throwable.fillInStackTrace.
+  static final ArithmeticException HANDLED_EXCEPTION = new StacklessException();
+
+  static final CompletableFuture<Integer> COMPLETED_RESULT = CompletableFuture.completedFuture(RESULT);
+
+  static final CompletableFuture<Integer> FAILED_RESULT = CompletableFuture.failedFuture(HANDLED_EXCEPTION);
+
+  private Fixtures() {
+  }
+
+  private static final class StacklessException extends ArithmeticException {
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package htnl5.yarl.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.List;
+
+// Parking on a ReentrantLock is counted as waiting, entering a contended monitor as blocking; both are reported for
+// the benchmark worker threads only.
+public final class LockContentionProfiler implements InternalProfiler {
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  private Totals before;
+
+  @Override
+  public String getDescription() {
+    return "Lock contention (thread blocked and waited counts and times) per iteration";
+  }
+
+  @Override
+  public void beforeIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams) {
+    if (threads.isThreadContentionMonitoringSupported()) threads.setThreadContentionMonitoringEnabled(true);
+    before = totals();
+  }
+
+  @Override
+  public Collection<? extends Result> afterIteration(final BenchmarkParams benchmarkParams,
+                                                     final IterationParams iterationParams,
+                                                     final IterationResult result) {
+    final var after = totals();
+    final var ops = Math.max(1L, result.getMetadata().getAllOps());
+    final var waits = after.waitedCount - before.waitedCount;
+    final var blocks = after.blockedCount - before.blockedCount;
+    return List.of(
+      new ScalarResult("lock.waited.count", waits, "#", AggregationPolicy.SUM),
+      new ScalarResult("lock.waited.count.norm", (double) waits / ops, "#/op", AggregationPolicy.AVG),
+      new ScalarResult("lock.waited.time", after.waitedTime - before.waitedTime, "ms", AggregationPolicy.SUM),
+      new ScalarResult("lock.blocked.count", blocks, "#", AggregationPolicy.SUM),
+      new ScalarResult("lock.blocked.count.norm", (double) blocks / ops, "#/op", AggregationPolicy.AVG),
+      new ScalarResult("lock.blocked.time", after.blockedTime - before.blockedTime, "ms", AggregationPolicy.SUM));
+  }
+
+  private Totals totals() {
+    final var totals = new Totals();
+    for (final ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+      if (info == null || !info.getThreadName().contains("jmh-worker")) continue;
+      totals.waitedCount += info.getWaitedCount();
+      totals.blockedCount += info.getBlockedCount();
+      totals.waitedTime += Math.max(0L, info.getWaitedTime());
+      totals.blockedTime += Math.max(0L, info.getBlockedTime());
+    }
+    return totals;
+  }
+
+  private static final class Totals {
+    private long waitedCount;
+    private long blockedCount;
+    private long waitedTime;
+    private long blockedTime;
+  }
+}
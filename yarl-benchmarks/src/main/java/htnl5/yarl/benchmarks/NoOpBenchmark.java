@@ -0,0 +1,99 @@
+package htnl5.yarl.benchmarks;
+
+import htnl5.yarl.noop.AsyncNoOpPolicy;
+import htnl5.yarl.noop.NoOpPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static htnl5.yarl.benchmarks.Fixtures.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class NoOpBenchmark {
+  private NoOpPolicy<Integer> policy;
+  private AsyncNoOpPolicy<Integer> asyncPolicy;
+
+  @Setup
+  public void setup() {
+    policy = NoOpPolicy.build();
+    asyncPolicy = AsyncNoOpPolicy.build();
+  }
+
+  @Benchmark
+  public Integer baseline() throws Throwable {
+    return action();
+  }
+
+  @Benchmark
+  public Integer success() throws Throwable {
+    return policy.execute(NoOpBenchmark::action);
+  }
+
+  @Benchmark
+  public Object baselineFailure() {
+    try {
+      return failingAction();
+    } catch (final ArithmeticException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object failure() {
+    try {
+      return policy.execute(NoOpBenchmark::failingAction);
+    } catch (final Throwable e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Integer asyncBaseline() {
+    return asyncAction().join();
+  }
+
+  @Benchmark
+  public Integer asyncSuccess() {
+    return asyncPolicy.execute(NoOpBenchmark::asyncAction).join();
+  }
+
+  @Benchmark
+  public Object asyncBaselineFailure() {
+    try {
+      return failingAsyncAction().join();
+    } catch (final RuntimeException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object asyncFailure() {
+    try {
+      return asyncPolicy.execute(NoOpBenchmark::failingAsyncAction).join();
+    } catch (final RuntimeException e) {
+      return e;
+    }
+  }
+
+  private static Integer action() {
+    return RESULT;
+  }
+
+  private static Integer failingAction() {
+    throw HANDLED_EXCEPTION;
+  }
+
+  private static CompletableFuture<Integer> asyncAction() {
+    return COMPLETED_RESULT;
+  }
+
+  private static CompletableFuture<Integer> failingAsyncAction() {
+    return FAILED_RESULT;
+  }
+}
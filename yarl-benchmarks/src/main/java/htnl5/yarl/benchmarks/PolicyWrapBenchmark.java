@@ -0,0 +1,76 @@
+package htnl5.yarl.benchmarks;
+
+import htnl5.yarl.ISyncPolicy;
+import htnl5.yarl.fallback.FallbackPolicy;
+import htnl5.yarl.retry.RetryPolicy;
+import htnl5.yarl.wrap.PolicyWrap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static htnl5.yarl.benchmarks.Fixtures.HANDLED_EXCEPTION;
+import static htnl5.yarl.benchmarks.Fixtures.RESULT;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PolicyWrapBenchmark {
+  @Param({"2", "4", "6", "8"})
+  public int depth;
+
+  private PolicyWrap<Integer> policy;
+
+  @Setup
+  public void setup() {
+    // The outermost fallback handles the failure after it has passed through every inner retry layer; the retries
+    // handle it too but are not allowed to retry, so the work per call stays linear in the depth.
+    //noinspection unchecked
+    final ISyncPolicy<Integer>[] policies = new ISyncPolicy[depth];
+    policies[0] = FallbackPolicy.<Integer>builder()
+      .handle(ArithmeticException.class)
+      .fallback(RESULT)
+      .build();
+    for (var i = 1; i < depth; i++) {
+      policies[i] = RetryPolicy.<Integer>builder()
+        .handle(ArithmeticException.class)
+        .maxRetryCount(0)
+        .build();
+    }
+    policy = PolicyWrap.wrap(policies);
+  }
+
+  @Benchmark
+  public Integer baseline() throws Throwable {
+    return action();
+  }
+
+  @Benchmark
+  public Integer success() throws Throwable {
+    return policy.execute(PolicyWrapBenchmark::action);
+  }
+
+  @Benchmark
+  public Integer baselineFailure() {
+    try {
+      return failingAction();
+    } catch (final ArithmeticException e) {
+      return RESULT;
+    }
+  }
+
+  @Benchmark
+  public Integer handledFailure() throws Throwable {
+    return policy.execute(PolicyWrapBenchmark::failingAction);
+  }
+
+  private static Integer action() {
+    return RESULT;
+  }
+
+  private static Integer failingAction() {
+    throw HANDLED_EXCEPTION;
+  }
+}
@@ -0,0 +1,63 @@
+package htnl5.yarl.benchmarks;
+
+import htnl5.yarl.retry.RetryPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static htnl5.yarl.benchmarks.Fixtures.HANDLED_EXCEPTION;
+import static htnl5.yarl.benchmarks.Fixtures.RESULT;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RetryBenchmark {
+  private RetryPolicy<Integer> policy;
+
+  @Setup
+  public void setup() {
+    policy = RetryPolicy.<Integer>builder()
+      .handle(ArithmeticException.class)
+      .maxRetryCount(1)
+      .build();
+  }
+
+  @Benchmark
+  public Integer baseline() throws Throwable {
+    return action();
+  }
+
+  @Benchmark
+  public Integer success() throws Throwable {
+    return policy.execute(RetryBenchmark::action);
+  }
+
+  @Benchmark
+  public Object baselineFailure() {
+    try {
+      return failingAction();
+    } catch (final ArithmeticException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object handledFailure() {
+    try {
+      return policy.execute(RetryBenchmark::failingAction);
+    } catch (final Throwable e) {
+      return e;
+    }
+  }
+
+  private static Integer action() {
+    return RESULT;
+  }
+
+  private static Integer failingAction() {
+    throw HANDLED_EXCEPTION;
+  }
+}
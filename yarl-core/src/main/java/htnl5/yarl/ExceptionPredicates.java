@@ -17,10 +17,10 @@ public final class ExceptionPredicates {
   }
 
   public Optional<Throwable> firstMatchOrEmpty(final Throwable e) {
-    return predicates.stream()
-      .map(p -> p.apply(e))
-      .filter(Optional::isPresent)
-      .findFirst()
-      .orElse(Optional.empty());
+    for (var i = 0; i < predicates.size(); i++) {
+      final var match = predicates.get(i).apply(e);
+      if (match.isPresent()) return match;
+    }
+    return Optional.empty();
   }
 }
@@ -17,7 +17,10 @@ public final class ResultPredicates<R> {
   }
 
   public boolean anyMatch(final R result) {
-    return predicates.stream()
-      .anyMatch(p -> p.test(result));
+    // Indexed so that the check on every call allocates neither a stream nor an iterator.
+    for (var i = 0; i < predicates.size(); i++) {
+      if (predicates.get(i).test(result)) return true;
+    }
+    return false;
   }
 }
@@ -3,7 +3,11 @@ package htnl5.yarl.circuitbreaker;
 import htnl5.yarl.Context;
 import htnl5.yarl.DelegateResult;
 import htnl5.yarl.EventListener;
+import htnl5.yarl.utilities.Ticker;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Clock;
 import java.time.Duration;
 import java.util.function.Consumer;
@@ -15,17 +19,38 @@ class AdvancedCircuitBreakerController<R> extends CircuitBreakerStateController<
   private final IHealthMetrics metrics;
   private final double failureThreshold;
   private final int minimumThroughput;
+  private final long slowCallDurationNanos;
+  private final double slowCallRateThreshold;
 
   AdvancedCircuitBreakerController(final double failureThreshold, final Duration samplingDuration,
-                                   final int minimumThroughput, final Duration durationOfBreak, final Clock clock,
+                                   final int minimumThroughput, final Duration durationOfBreak,
+                                   final boolean stripedHealthMetrics, final long slowCallDurationNanos,
+                                   final double slowCallRateThreshold, final Clock clock, final Ticker ticker,
                                    final EventListener<BreakEvent<? extends R>> onBreak,
-                                   final Consumer<Context> onReset, final Runnable onHalfOpen) {
-    super(durationOfBreak, clock, onBreak, onReset, onHalfOpen);
-    metrics = samplingDuration.toMillis() < RESOLUTION_OF_CIRCUIT_TIMER_MILLIS * NUMBER_OF_WINDOWS
-      ? new SingleHealthMetrics(samplingDuration, clock)
-      : new RollingHealthMetrics(samplingDuration, clock, NUMBER_OF_WINDOWS);
+                                   final Consumer<Context> onReset, final Runnable onHalfOpen,
+                                   final boolean stacklessRejections, final int halfOpenProbes,
+                                   final double halfOpenSuccessRatio, final Duration rampUpDuration,
+                                   final BreakDurationProvider breakDurationProvider,
+                                   final Duration breakCountResetAfter) {
+    super(durationOfBreak, clock, ticker, onBreak, onReset, onHalfOpen, stacklessRejections, halfOpenProbes,
+      halfOpenSuccessRatio, rampUpDuration, breakDurationProvider, breakCountResetAfter, null);
+    if (stripedHealthMetrics) metrics = new StripedHealthMetrics(samplingDuration, ticker, NUMBER_OF_WINDOWS);
+    else if (samplingDuration.toMillis() < RESOLUTION_OF_CIRCUIT_TIMER_MILLIS * NUMBER_OF_WINDOWS)
+      metrics = new SingleHealthMetrics(samplingDuration, ticker);
+    else metrics = new RollingHealthMetrics(samplingDuration, ticker, NUMBER_OF_WINDOWS);
     this.failureThreshold = failureThreshold;
     this.minimumThroughput = minimumThroughput;
+    this.slowCallDurationNanos = slowCallDurationNanos;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+  }
+
+  static long toSlowCallDurationNanos(final Duration slowCallDuration) {
+    if (slowCallDuration == null) return CALLS_NOT_TIMED;
+    try {
+      return slowCallDuration.toNanos();
+    } catch (final ArithmeticException e) {
+      return CALLS_NOT_TIMED;
+    }
   }
 
   @Override
@@ -39,39 +64,90 @@ class AdvancedCircuitBreakerController<R> extends CircuitBreakerStateController<
   }
 
   @Override
-  public void onActionSuccess(final Context context) {
+  public long getSlowCallDurationNanos() {
+    return slowCallDurationNanos;
+  }
+
+  @Override
+  protected int getSlowCalls() {
+    return slowCallDurationNanos == CALLS_NOT_TIMED ? 0 : metrics.getHealthCount().getSlowCalls();
+  }
+
+  @Override
+  protected HealthCount peekHealthCount() {
+    return metrics.peekHealthCount();
+  }
+
+  @Override
+  protected void writeSpecific(final DataOutput output) throws IOException {
+    metrics.writeTo(output);
+  }
+
+  @Override
+  protected Runnable readSpecific(final DataInput input, final long elapsedMillis) throws IOException {
+    final var windows = IHealthMetrics.readWindows(input);
+    return () -> metrics.restore(windows, elapsedMillis);
+  }
+
+  @Override
+  public void onActionSuccess(final R result, final Context context, final boolean slow) {
+    if (state == CircuitBreakerState.CLOSED && !slow) {
+      metrics.incrementSuccess();
+      return;
+    }
     lock.lock();
     try {
+      // A break on slow calls reports the slow result, rather than whichever failure came before it. Slow calls that do
+      // not break the circuit leave the last outcome alone.
       switch (state) {
         case CLOSED, OPEN, ISOLATED -> {
         }
-        case HALF_OPEN -> reset(context);
+        // A probe that succeeds too slowly does not show the downstream has recovered.
+        case HALF_OPEN -> {
+          if (slow) onHalfOpenFailure(context, DelegateResult.success(result));
+          else onHalfOpenSuccess(context);
+        }
       }
       metrics.incrementSuccess();
+      if (slow) {
+        metrics.incrementSlowCall();
+        if (state == CircuitBreakerState.CLOSED && isThresholdReached()) {
+          lastOutcome = DelegateResult.success(result);
+          break_(context);
+        }
+      }
     } finally {
       lock.unlock();
     }
   }
 
   @Override
-  public void onActionFailure(final DelegateResult<R> outcome, final Context context) {
+  public void onActionFailure(final DelegateResult<R> outcome, final Context context, final boolean slow) {
     lock.lock();
     try {
       lastOutcome = outcome;
       switch (state) {
         case CLOSED -> {
           metrics.incrementFailure();
-          final var healthCount = metrics.getHealthCount();
-          final var throughput = healthCount.getTotal();
-          if (throughput >= minimumThroughput && ((double) healthCount.getFailures()) / throughput >= failureThreshold) {
-            break_(context);
-          }
+          if (slow) metrics.incrementSlowCall();
+          if (isThresholdReached()) break_(context);
         }
-        case OPEN, ISOLATED -> metrics.incrementFailure();
-        case HALF_OPEN -> break_(context);
+        case OPEN, ISOLATED -> {
+          metrics.incrementFailure();
+          if (slow) metrics.incrementSlowCall();
+        }
+        case HALF_OPEN -> onHalfOpenFailure(context);
       }
     } finally {
       lock.unlock();
     }
   }
+
+  private boolean isThresholdReached() {
+    final var healthCount = metrics.getHealthCount();
+    final var throughput = healthCount.getTotal();
+    if (throughput < minimumThroughput) return false;
+    return ((double) healthCount.getFailures()) / throughput >= failureThreshold
+      || ((double) healthCount.getSlowCalls()) / throughput >= slowCallRateThreshold;
+  }
 }
@@ -3,6 +3,8 @@ package htnl5.yarl.circuitbreaker;
 import htnl5.yarl.IBuildable;
 
 import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
 
 public final class AdvancedCircuitBreakerPolicyBuilder<R>
   extends CircuitBreakerPolicyBuilderBase<R, AdvancedCircuitBreakerPolicyBuilder<R>>
@@ -15,8 +17,23 @@ public final class AdvancedCircuitBreakerPolicyBuilder<R>
 
   private final Duration durationOfBreak;
 
+  private boolean stripedHealthMetrics;
+
+  private Duration slowCallDuration;
+
+  private double slowCallRateThreshold = 1d;
+
   public AdvancedCircuitBreakerPolicyBuilder(final double failureThreshold, final Duration samplingDuration,
                                              final int minimumThroughput, final Duration durationOfBreak) {
+    checkArguments(failureThreshold, samplingDuration, minimumThroughput, durationOfBreak);
+    this.failureThreshold = failureThreshold;
+    this.samplingDuration = samplingDuration;
+    this.minimumThroughput = minimumThroughput;
+    this.durationOfBreak = durationOfBreak;
+  }
+
+  static void checkArguments(final double failureThreshold, final Duration samplingDuration,
+                             final int minimumThroughput, final Duration durationOfBreak) {
     final var resolutionOfCircuit =
       Duration.ofMillis(AdvancedCircuitBreakerController.RESOLUTION_OF_CIRCUIT_TIMER_MILLIS);
     if (failureThreshold <= 0d) throw new IllegalArgumentException("failureThreshold must be greater than zero.");
@@ -29,10 +46,16 @@ public final class AdvancedCircuitBreakerPolicyBuilder<R>
     if (minimumThroughput <= 1) throw new IllegalArgumentException("minimumThroughput must be greater than one.");
     if (durationOfBreak.isNegative())
       throw new IllegalArgumentException("durationOfBreak must be greater than or equal to zero.");
-    this.failureThreshold = failureThreshold;
-    this.samplingDuration = samplingDuration;
-    this.minimumThroughput = minimumThroughput;
-    this.durationOfBreak = durationOfBreak;
+  }
+
+  static void checkSlowCallArguments(final Duration slowCallDuration, final double slowCallRateThreshold) {
+    Objects.requireNonNull(slowCallDuration, "slowCallDuration must not be null.");
+    if (slowCallDuration.isNegative() || slowCallDuration.isZero())
+      throw new IllegalArgumentException("slowCallDuration must be greater than zero.");
+    if (slowCallRateThreshold <= 0d)
+      throw new IllegalArgumentException("slowCallRateThreshold must be greater than zero.");
+    if (slowCallRateThreshold > 1d)
+      throw new IllegalArgumentException("slowCallRateThreshold must be less than or equal to one.");
   }
 
   double getFailureThreshold() {
@@ -51,11 +74,44 @@ public final class AdvancedCircuitBreakerPolicyBuilder<R>
     return durationOfBreak;
   }
 
+  boolean isStripedHealthMetrics() {
+    return stripedHealthMetrics;
+  }
+
+  // Counts outcomes in striped cells instead of behind a lock, for breakers called from many threads at once.
+  public AdvancedCircuitBreakerPolicyBuilder<R> stripedHealthMetrics() {
+    this.stripedHealthMetrics = true;
+    return self();
+  }
+
+  Optional<Duration> getSlowCallDuration() {
+    return Optional.ofNullable(slowCallDuration);
+  }
+
+  double getSlowCallRateThreshold() {
+    return slowCallRateThreshold;
+  }
+
+  // Calls taking at least slowCallDuration count as slow, and the circuit also breaks when their share of the
+  // throughput reaches slowCallRateThreshold.
+  public AdvancedCircuitBreakerPolicyBuilder<R> slowCallThreshold(final Duration slowCallDuration,
+                                                                  final double slowCallRateThreshold) {
+    checkSlowCallArguments(slowCallDuration, slowCallRateThreshold);
+    this.slowCallDuration = slowCallDuration;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    return self();
+  }
+
   @Override
   public CircuitBreakerPolicy<R, AdvancedCircuitBreakerPolicyBuilder<R>> build() {
+    final var events = createEventPublisher();
     final var controller = new AdvancedCircuitBreakerController<>(failureThreshold, samplingDuration,
-      minimumThroughput, durationOfBreak, getClock(), getOnBreak(), getOnReset(), getOnHalfOpen());
-    return new CircuitBreakerPolicy<>(this, controller);
+      minimumThroughput, durationOfBreak, stripedHealthMetrics,
+      AdvancedCircuitBreakerController.toSlowCallDurationNanos(slowCallDuration), slowCallRateThreshold, getClock(),
+      getTicker(), events.onBreak(), events.onReset(), events.onHalfOpen(), isStacklessRejections(),
+      getHalfOpenProbes(), getHalfOpenSuccessRatio(), getRampUpDuration(), getBreakDurationProvider(),
+      getBreakCountResetAfter());
+    return new CircuitBreakerPolicy<>(this, controller, events);
   }
 
   @Override
@@ -0,0 +1,111 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.IAsyncPolicy;
+import htnl5.yarl.IAsyncPolicyBuilder;
+import htnl5.yarl.IBuildable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+public final class AsyncAdvancedCircuitBreakerPolicyBuilder<R>
+  extends CircuitBreakerPolicyBuilderBase<R, AsyncAdvancedCircuitBreakerPolicyBuilder<R>>
+  implements IAsyncPolicyBuilder<AsyncAdvancedCircuitBreakerPolicyBuilder<R>>,
+  IBuildable<AsyncCircuitBreakerPolicy<R, AsyncAdvancedCircuitBreakerPolicyBuilder<R>>> {
+  private final double failureThreshold;
+
+  private final Duration samplingDuration;
+
+  private final int minimumThroughput;
+
+  private final Duration durationOfBreak;
+
+  private Executor executor = IAsyncPolicy.DEFAULT_EXECUTOR;
+
+  private boolean stripedHealthMetrics;
+
+  private Duration slowCallDuration;
+
+  private double slowCallRateThreshold = 1d;
+
+  public AsyncAdvancedCircuitBreakerPolicyBuilder(final double failureThreshold, final Duration samplingDuration,
+                                                  final int minimumThroughput, final Duration durationOfBreak) {
+    AdvancedCircuitBreakerPolicyBuilder.checkArguments(failureThreshold, samplingDuration, minimumThroughput,
+      durationOfBreak);
+    this.failureThreshold = failureThreshold;
+    this.samplingDuration = samplingDuration;
+    this.minimumThroughput = minimumThroughput;
+    this.durationOfBreak = durationOfBreak;
+  }
+
+  @Override
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  @Override
+  public AsyncAdvancedCircuitBreakerPolicyBuilder<R> executor(final Executor executor) {
+    Objects.requireNonNull(executor, "executor must not be null.");
+    this.executor = executor;
+    return self();
+  }
+
+  double getFailureThreshold() {
+    return failureThreshold;
+  }
+
+  Duration getSamplingDuration() {
+    return samplingDuration;
+  }
+
+  int getMinimumThroughput() {
+    return minimumThroughput;
+  }
+
+  Duration getDurationOfBreak() {
+    return durationOfBreak;
+  }
+
+  boolean isStripedHealthMetrics() {
+    return stripedHealthMetrics;
+  }
+
+  public AsyncAdvancedCircuitBreakerPolicyBuilder<R> stripedHealthMetrics() {
+    this.stripedHealthMetrics = true;
+    return self();
+  }
+
+  Optional<Duration> getSlowCallDuration() {
+    return Optional.ofNullable(slowCallDuration);
+  }
+
+  double getSlowCallRateThreshold() {
+    return slowCallRateThreshold;
+  }
+
+  public AsyncAdvancedCircuitBreakerPolicyBuilder<R> slowCallThreshold(final Duration slowCallDuration,
+                                                                       final double slowCallRateThreshold) {
+    AdvancedCircuitBreakerPolicyBuilder.checkSlowCallArguments(slowCallDuration, slowCallRateThreshold);
+    this.slowCallDuration = slowCallDuration;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    return self();
+  }
+
+  @Override
+  public AsyncCircuitBreakerPolicy<R, AsyncAdvancedCircuitBreakerPolicyBuilder<R>> build() {
+    final var events = createEventPublisher();
+    final var controller = new AdvancedCircuitBreakerController<R>(failureThreshold, samplingDuration,
+      minimumThroughput, durationOfBreak, stripedHealthMetrics,
+      AdvancedCircuitBreakerController.toSlowCallDurationNanos(slowCallDuration), slowCallRateThreshold, getClock(),
+      getTicker(), events.onBreak(), events.onReset(), events.onHalfOpen(), isStacklessRejections(),
+      getHalfOpenProbes(), getHalfOpenSuccessRatio(), getRampUpDuration(), getBreakDurationProvider(),
+      getBreakCountResetAfter());
+    return new AsyncCircuitBreakerPolicy<>(this, controller, events);
+  }
+
+  @Override
+  public AsyncAdvancedCircuitBreakerPolicyBuilder<R> self() {
+    return this;
+  }
+}
@@ -0,0 +1,48 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.Context;
+import htnl5.yarl.IAsyncPolicyBuilder;
+import htnl5.yarl.IReactiveAsyncPolicy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+public final class AsyncCircuitBreakerPolicy<R,
+  B extends CircuitBreakerPolicyBuilderBase<R, B> & IAsyncPolicyBuilder<B>>
+  extends CircuitBreakerPolicyBase<R, B>
+  implements IReactiveAsyncPolicy<R> {
+  private final Executor executor;
+
+  AsyncCircuitBreakerPolicy(final B policyBuilder, final ICircuitBreakerController<R> controller,
+                           final CircuitBreakerEventPublisher<R> events) {
+    super(policyBuilder, controller, events);
+    executor = policyBuilder.getExecutor();
+  }
+
+  public static <R> AsyncCircuitBreakerPolicyBuilder<R> builder() {
+    return new AsyncCircuitBreakerPolicyBuilder<>();
+  }
+
+  public static <R> AsyncAdvancedCircuitBreakerPolicyBuilder<R> advancedBuilder(final double failureThreshold,
+                                                                                final Duration samplingDuration,
+                                                                                final int minimumThroughput,
+                                                                                final Duration durationOfBreak) {
+    return new AsyncAdvancedCircuitBreakerPolicyBuilder<>(failureThreshold, samplingDuration, minimumThroughput,
+      durationOfBreak);
+  }
+
+  @Override
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  @Override
+  public CompletableFuture<R> implementation(final Context context, final Executor executor,
+                                             final Function<Context, ? extends CompletionStage<R>> action) {
+    return CircuitBreakerEngine.implementation(action, context, getExceptionPredicates(), getResultPredicates(),
+      getController());
+  }
+}
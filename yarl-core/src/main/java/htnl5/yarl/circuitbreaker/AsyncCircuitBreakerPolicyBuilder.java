@@ -0,0 +1,87 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.IAsyncPolicy;
+import htnl5.yarl.IAsyncPolicyBuilder;
+import htnl5.yarl.IBuildable;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+public final class AsyncCircuitBreakerPolicyBuilder<R>
+  extends CircuitBreakerPolicyBuilderBase<R, AsyncCircuitBreakerPolicyBuilder<R>>
+  implements IAsyncPolicyBuilder<AsyncCircuitBreakerPolicyBuilder<R>>,
+  IBuildable<AsyncCircuitBreakerPolicy<R, AsyncCircuitBreakerPolicyBuilder<R>>> {
+  private Executor executor = IAsyncPolicy.DEFAULT_EXECUTOR;
+
+  private int failuresAllowedBeforeBreaking = 1;
+
+  private Duration durationOfBreak = Duration.ofMinutes(1);
+
+  private Path sharedStateFile;
+
+  @Override
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  @Override
+  public AsyncCircuitBreakerPolicyBuilder<R> executor(final Executor executor) {
+    Objects.requireNonNull(executor, "executor must not be null.");
+    this.executor = executor;
+    return self();
+  }
+
+  int getFailuresAllowedBeforeBreaking() {
+    return failuresAllowedBeforeBreaking;
+  }
+
+  public AsyncCircuitBreakerPolicyBuilder<R> failuresAllowedBeforeBreaking(final int failuresAllowedBeforeBreaking) {
+    if (failuresAllowedBeforeBreaking <= 0)
+      throw new IllegalArgumentException("failuresAllowedBeforeBreaking must be greater than zero.");
+    this.failuresAllowedBeforeBreaking = failuresAllowedBeforeBreaking;
+    return self();
+  }
+
+  Duration getDurationOfBreak() {
+    return durationOfBreak;
+  }
+
+  public AsyncCircuitBreakerPolicyBuilder<R> durationOfBreak(final Duration durationOfBreak) {
+    Objects.requireNonNull(durationOfBreak, "durationOfBreak must not be null.");
+    if (durationOfBreak.isNegative())
+      throw new IllegalArgumentException("durationOfBreak must be greater than or equal to zero.");
+    this.durationOfBreak = durationOfBreak;
+    return self();
+  }
+
+  SharedCircuitState getSharedState() {
+    return sharedStateFile == null ? null : SharedCircuitState.open(sharedStateFile);
+  }
+
+  // Keeps the circuit state and the consecutive failure count in the given file, memory-mapped, so that breakers built
+  // with the same file in processes on this host break, probe and close together. Only this breaker offers it: the
+  // advanced and sliding-window breakers judge by health windows kept in process, and sharing their state without
+  // those windows would leave each process to see the whole threshold on its own.
+  public AsyncCircuitBreakerPolicyBuilder<R> sharedStateFile(final Path sharedStateFile) {
+    Objects.requireNonNull(sharedStateFile, "sharedStateFile must not be null.");
+    this.sharedStateFile = sharedStateFile;
+    return self();
+  }
+
+  @Override
+  public AsyncCircuitBreakerPolicy<R, AsyncCircuitBreakerPolicyBuilder<R>> build() {
+    final var events = createEventPublisher();
+    final var controller = new ConsecutiveCountCircuitBreakerController<R>(failuresAllowedBeforeBreaking,
+      durationOfBreak, getClock(), getTicker(), events.onBreak(), events.onReset(), events.onHalfOpen(),
+      isStacklessRejections(), getHalfOpenProbes(), getHalfOpenSuccessRatio(), getRampUpDuration(),
+      getBreakDurationProvider(), getBreakCountResetAfter(), getSharedState());
+    return new AsyncCircuitBreakerPolicy<>(this, controller, events);
+  }
+
+  @Override
+  public AsyncCircuitBreakerPolicyBuilder<R> self() {
+    return this;
+  }
+}
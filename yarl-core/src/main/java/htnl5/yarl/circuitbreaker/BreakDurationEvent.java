@@ -0,0 +1,10 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.Context;
+
+import java.time.Duration;
+
+// producer
+// consecutiveBreaks counts this break and those before it that were not separated by a stable closed period.
+public record BreakDurationEvent(int consecutiveBreaks, Duration durationOfBreak, Context context) {
+}
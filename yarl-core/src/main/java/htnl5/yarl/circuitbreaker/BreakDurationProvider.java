@@ -0,0 +1,8 @@
+package htnl5.yarl.circuitbreaker;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// consumer
+public interface BreakDurationProvider extends Function<BreakDurationEvent, Duration> {
+}
@@ -6,6 +6,11 @@ import htnl5.yarl.DelegateResult;
 import java.time.Duration;
 
 // producer
+// slowCalls is the number of slow calls in the window the breaker judged, for breakers that time calls.
 public record BreakEvent<R>(DelegateResult<R> outcome, CircuitBreakerState state, Duration durationOfBreak,
-                            Context context) {
+                            Context context, int slowCalls) implements CircuitBreakerEvent<R> {
+  public BreakEvent(final DelegateResult<R> outcome, final CircuitBreakerState state, final Duration durationOfBreak,
+                    final Context context) {
+    this(outcome, state, durationOfBreak, context, 0);
+  }
 }
@@ -6,6 +6,11 @@ import htnl5.yarl.ExceptionPredicates;
 import htnl5.yarl.ResultPredicates;
 import htnl5.yarl.functions.ThrowingFunction;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
 final class CircuitBreakerEngine {
   private CircuitBreakerEngine() {
   }
@@ -15,14 +20,68 @@ final class CircuitBreakerEngine {
                               final ICircuitBreakerController<R> controller) throws Throwable {
     controller.onActionPreExecute();
 
+    final var slowCallDurationNanos = controller.getSlowCallDurationNanos();
+    final var startedAt = startTiming(slowCallDurationNanos);
     final var outcome = DelegateResult.runCatching(exceptionPredicates, () -> (R) action.apply(context));
+    final var slow = isSlow(startedAt, slowCallDurationNanos);
     final var shouldHandle = outcome.shouldHandle(resultPredicates, exceptionPredicates);
     if (shouldHandle) {
-      outcome.onSuccess(r -> controller.onActionFailure(outcome, context))
-        .onFailure(e -> controller.onActionFailure(outcome, context));
+      controller.onActionFailure(outcome, context, slow);
     } else {
-      outcome.onSuccess(r -> controller.onActionSuccess(context));
+      outcome.onSuccess(r -> controller.onActionSuccess(r, context, slow));
     }
     return outcome.getOrThrow();
   }
+
+  // The outcome is recorded on whichever thread completes the action's stage, so the breaker neither blocks nor hops
+  // executors. A rejected call fails straight away without running the action.
+  static <R> CompletableFuture<R> implementation(final Function<Context, ? extends CompletionStage<R>> action,
+                                                 final Context context, final ExceptionPredicates exceptionPredicates,
+                                                 final ResultPredicates<R> resultPredicates,
+                                                 final ICircuitBreakerController<R> controller) {
+    try {
+      controller.onActionPreExecute();
+    } catch (final BrokenCircuitException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    final var slowCallDurationNanos = controller.getSlowCallDurationNanos();
+    final var startedAt = startTiming(slowCallDurationNanos);
+    CompletionStage<R> stage;
+    try {
+      stage = action.apply(context);
+    } catch (final Throwable e) {
+      stage = CompletableFuture.failedFuture(e);
+    }
+
+    final var future = new CompletableFuture<R>();
+    stage.whenComplete((r, e) -> {
+      final var slow = isSlow(startedAt, slowCallDurationNanos);
+      final var exception = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+      final DelegateResult<R> outcome = exception == null
+        ? DelegateResult.success(r)
+        : DelegateResult.failure(exceptionPredicates.firstMatchOrEmpty(exception).orElse(exception));
+      try {
+        if (outcome.shouldHandle(resultPredicates, exceptionPredicates)) {
+          controller.onActionFailure(outcome, context, slow);
+        } else {
+          outcome.onSuccess(result -> controller.onActionSuccess(result, context, slow));
+        }
+      } finally {
+        outcome.onSuccess(future::complete)
+          .onFailure(future::completeExceptionally);
+      }
+    });
+    return future;
+  }
+
+  // Calls are only timed for controllers that ask for it.
+  private static long startTiming(final long slowCallDurationNanos) {
+    return slowCallDurationNanos == CircuitBreakerStateController.CALLS_NOT_TIMED ? 0L : System.nanoTime();
+  }
+
+  private static boolean isSlow(final long startedAt, final long slowCallDurationNanos) {
+    return slowCallDurationNanos != CircuitBreakerStateController.CALLS_NOT_TIMED
+      && System.nanoTime() - startedAt >= slowCallDurationNanos;
+  }
 }
@@ -0,0 +1,6 @@
+package htnl5.yarl.circuitbreaker;
+
+// producer
+// A transition of the circuit, as published by CircuitBreakerPolicyBase.getEvents.
+public sealed interface CircuitBreakerEvent<R> permits BreakEvent, ResetEvent, HalfOpenEvent {
+}
@@ -0,0 +1,109 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.Context;
+import htnl5.yarl.EventListener;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Publishes the transitions of one breaker to any number of subscribers, each with its own bounded buffer. An event
+// for a subscriber whose buffer is full is dropped rather than holding up the breaker. Without an event executor the
+// listeners configured on the builder run as before, on the calling thread under the controller's lock; with one they
+// are handed to the executor one event at a time, in order and off the lock. The hand-off is unbounded so that a slow
+// listener never misses a transition.
+final class CircuitBreakerEventPublisher<R> {
+  private final SubmissionPublisher<CircuitBreakerEvent<? extends R>> publisher;
+  private final EventListener<BreakEvent<? extends R>> onBreak;
+  private final Consumer<Context> onReset;
+  private final Runnable onHalfOpen;
+  private final Executor executor;
+  private final Queue<CircuitBreakerEvent<? extends R>> listenerEvents = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean draining = new AtomicBoolean();
+
+  CircuitBreakerEventPublisher(final Executor executor, final int bufferCapacity,
+                               final EventListener<BreakEvent<? extends R>> onBreak,
+                               final Consumer<Context> onReset, final Runnable onHalfOpen) {
+    this.onBreak = onBreak;
+    this.onReset = onReset;
+    this.onHalfOpen = onHalfOpen;
+    this.executor = executor;
+    publisher = new SubmissionPublisher<>(executor != null ? executor : ForkJoinPool.commonPool(), bufferCapacity);
+  }
+
+  Flow.Publisher<CircuitBreakerEvent<? extends R>> getPublisher() {
+    return publisher;
+  }
+
+  EventListener<BreakEvent<? extends R>> onBreak() {
+    if (executor != null) return this::handOffAndPublish;
+    return event -> {
+      onBreak.accept(event);
+      publish(event);
+    };
+  }
+
+  Consumer<Context> onReset() {
+    if (executor != null) return context -> handOffAndPublish(new ResetEvent<>(context));
+    return context -> {
+      onReset.accept(context);
+      publish(new ResetEvent<>(context));
+    };
+  }
+
+  Runnable onHalfOpen() {
+    if (executor != null) return () -> handOffAndPublish(new HalfOpenEvent<>());
+    return () -> {
+      onHalfOpen.run();
+      publish(new HalfOpenEvent<>());
+    };
+  }
+
+  private void publish(final CircuitBreakerEvent<? extends R> event) {
+    if (publisher.hasSubscribers()) publisher.offer(event, null);
+  }
+
+  private void handOffAndPublish(final CircuitBreakerEvent<? extends R> event) {
+    listenerEvents.add(event);
+    scheduleDrain();
+    publish(event);
+  }
+
+  // At most one drain runs at a time, which keeps the listeners in order. An executor that rejects the drain leaves
+  // the events queued for the next transition to pick up.
+  private void scheduleDrain() {
+    if (!draining.compareAndSet(false, true)) return;
+    try {
+      executor.execute(this::drain);
+    } catch (final RejectedExecutionException e) {
+      draining.set(false);
+    }
+  }
+
+  private void drain() {
+    do {
+      CircuitBreakerEvent<? extends R> event;
+      while ((event = listenerEvents.poll()) != null) {
+        callListener(event);
+      }
+      draining.set(false);
+      // An event queued after the last poll but before the flag was cleared found the drain still running.
+    } while (!listenerEvents.isEmpty() && draining.compareAndSet(false, true));
+  }
+
+  // A listener that throws must not stop the drain, which would silence the listeners for good.
+  private void callListener(final CircuitBreakerEvent<? extends R> event) {
+    try {
+      if (event instanceof BreakEvent<? extends R> breakEvent) onBreak.accept(breakEvent);
+      else if (event instanceof ResetEvent<? extends R> resetEvent) onReset.accept(resetEvent.context());
+      else onHalfOpen.run();
+    } catch (final RuntimeException ignored) {
+    }
+  }
+}
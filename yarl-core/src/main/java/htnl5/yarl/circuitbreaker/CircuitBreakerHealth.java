@@ -0,0 +1,20 @@
+package htnl5.yarl.circuitbreaker;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// producer
+// A point-in-time view of a breaker for exporting metrics. successes and failures are those the breaker judges by:
+// the sampling window of an advanced breaker, the last calls of a sliding-window breaker, and the current run of
+// failures of a consecutive count breaker. windowStartedAt is null for breakers that do not count over time.
+public record CircuitBreakerHealth(CircuitBreakerState state, int successes, int failures, Instant windowStartedAt,
+                                   Duration untilHalfOpen, long trips) {
+  public int total() {
+    return successes + failures;
+  }
+
+  public double failureRate() {
+    final var total = total();
+    return total == 0 ? 0d : ((double) failures) / total;
+  }
+}
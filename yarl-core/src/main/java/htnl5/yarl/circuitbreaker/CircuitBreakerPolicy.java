@@ -1,14 +1,22 @@
 package htnl5.yarl.circuitbreaker;
 
+import htnl5.yarl.Context;
+import htnl5.yarl.ExceptionType;
 import htnl5.yarl.IReactiveSyncPolicy;
+import htnl5.yarl.PolicyResult;
+import htnl5.yarl.functions.ThrowingFunction;
+import htnl5.yarl.functions.ThrowingSupplier;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
 
 public final class CircuitBreakerPolicy<R, B extends CircuitBreakerPolicyBuilderBase<R, B>>
   extends CircuitBreakerPolicyBase<R, B>
   implements IReactiveSyncPolicy<R> {
-  CircuitBreakerPolicy(final B policyBuilder, final ICircuitBreakerController<R> controller) {
-    super(policyBuilder, controller);
+  CircuitBreakerPolicy(final B policyBuilder, final ICircuitBreakerController<R> controller,
+                      final CircuitBreakerEventPublisher<R> events) {
+    super(policyBuilder, controller, events);
   }
 
   public static <R> CircuitBreakerPolicyBuilder<R> builder() {
@@ -22,4 +30,41 @@ public final class CircuitBreakerPolicy<R, B extends CircuitBreakerPolicyBuilder
     return new AdvancedCircuitBreakerPolicyBuilder<>(failureThreshold, samplingDuration, minimumThroughput,
       durationOfBreak);
   }
+
+  public static <R> SlidingWindowCircuitBreakerPolicyBuilder<R> slidingWindowBuilder(final double failureThreshold,
+                                                                                     final int windowSize,
+                                                                                     final int minimumThroughput,
+                                                                                     final Duration durationOfBreak) {
+    return new SlidingWindowCircuitBreakerPolicyBuilder<>(failureThreshold, windowSize, minimumThroughput,
+      durationOfBreak);
+  }
+
+  public PolicyResult<R> tryExecute(final ThrowingSupplier<? extends R> action) {
+    return tryExecute(Context.none(), ctx -> action.get());
+  }
+
+  public PolicyResult<R> tryExecute(final Map<String, Object> contextData,
+                                    final ThrowingFunction<Context, ? extends R> action) {
+    Objects.requireNonNull(contextData, "contextData must not be null.");
+    return tryExecute(new Context(null, contextData), action);
+  }
+
+  // Like executeAndCapture, but a call the circuit rejects is turned into a result without throwing.
+  public PolicyResult<R> tryExecute(final Context context, final ThrowingFunction<Context, ? extends R> action) {
+    Objects.requireNonNull(context, "context must not be null.");
+    final var rejection = getController().peekRejection();
+    if (rejection.isPresent()) {
+      final var e = rejection.get();
+      return PolicyResult.failureWithException(e, ExceptionType.getExceptionType(getExceptionPredicates(), e),
+        context);
+    }
+    return executeAndCapture(context, action);
+  }
+
+  @Override
+  public R implementation(final Context context, final ThrowingFunction<Context, ? extends R> action)
+    throws Throwable {
+    return CircuitBreakerEngine.implementation(action, context, getExceptionPredicates(), getResultPredicates(),
+      getController());
+  }
 }
@@ -1,30 +1,35 @@
 package htnl5.yarl.circuitbreaker;
 
 import htnl5.yarl.*;
-import htnl5.yarl.functions.ThrowingFunction;
 
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Flow;
 
 public abstract class CircuitBreakerPolicyBase<R, B extends CircuitBreakerPolicyBuilderBase<R, B>>
-  extends Policy<B>
-  implements IReactiveSyncPolicy<R> {
+  extends Policy<B> {
   private final ResultPredicates<R> resultPredicates;
   private final ExceptionPredicates exceptionPredicates;
   private final ICircuitBreakerController<R> controller;
+  private final CircuitBreakerEventPublisher<R> events;
 
-  protected CircuitBreakerPolicyBase(final B policyBuilder, final ICircuitBreakerController<R> controller) {
+  protected CircuitBreakerPolicyBase(final B policyBuilder, final ICircuitBreakerController<R> controller,
+                                     final CircuitBreakerEventPublisher<R> events) {
     super(policyBuilder);
     this.resultPredicates = policyBuilder.getResultPredicates();
     this.exceptionPredicates = policyBuilder.getExceptionPredicates();
     this.controller = controller;
+    this.events = events;
   }
 
-  @Override
   public ResultPredicates<R> getResultPredicates() {
     return resultPredicates;
   }
 
-  @Override
   public ExceptionPredicates getExceptionPredicates() {
     return exceptionPredicates;
   }
@@ -41,6 +46,17 @@ public abstract class CircuitBreakerPolicyBase<R, B extends CircuitBreakerPolicy
     return controller.getLastOutcome();
   }
 
+  // Transitions of the circuit, delivered asynchronously on the builder's event executor, or the common pool without
+  // one. A subscriber that falls more than the event buffer behind misses events rather than slowing the breaker down.
+  public Flow.Publisher<CircuitBreakerEvent<? extends R>> getEvents() {
+    return events.getPublisher();
+  }
+
+  // Cheap and lock-free, for polling by metrics scrapers.
+  public CircuitBreakerHealth getHealth() {
+    return controller.getHealth();
+  }
+
   public void isolate() {
     controller.isolate();
   }
@@ -49,9 +65,29 @@ public abstract class CircuitBreakerPolicyBase<R, B extends CircuitBreakerPolicy
     controller.reset();
   }
 
-  @Override
-  public R implementation(final Context context, final ThrowingFunction<Context, ? extends R> action)
-    throws Throwable {
-    return CircuitBreakerEngine.implementation(action, context, exceptionPredicates, resultPredicates, controller);
+  // Writes the circuit state, a summary of the last outcome and the health counts to the file, replacing it
+  // atomically, so that the next run can pick up where this one left off with restoreState.
+  public void saveState(final Path file) throws IOException {
+    Objects.requireNonNull(file, "file must not be null.");
+    final var absoluteFile = file.toAbsolutePath();
+    final var temporaryFile = Files.createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(),
+      ".tmp");
+    try {
+      try (final var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+        controller.writeState(output);
+      }
+      Files.move(temporaryFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+  }
+
+  // Restores a state saved by a breaker of the same kind. Health windows that have aged out since it was saved are
+  // dropped, and a break that has run out in the meantime leaves the circuit half-open.
+  public void restoreState(final Path file) throws IOException {
+    Objects.requireNonNull(file, "file must not be null.");
+    try (final var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      controller.readState(input);
+    }
   }
 }
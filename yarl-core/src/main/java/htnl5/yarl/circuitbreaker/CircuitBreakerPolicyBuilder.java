@@ -2,6 +2,7 @@ package htnl5.yarl.circuitbreaker;
 
 import htnl5.yarl.IBuildable;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Objects;
 
@@ -12,6 +13,8 @@ public final class CircuitBreakerPolicyBuilder<R>
 
   private Duration durationOfBreak = Duration.ofMinutes(1);
 
+  private Path sharedStateFile;
+
   int getFailuresAllowedBeforeBreaking() {
     return failuresAllowedBeforeBreaking;
   }
@@ -35,11 +38,28 @@ public final class CircuitBreakerPolicyBuilder<R>
     return self();
   }
 
+  SharedCircuitState getSharedState() {
+    return sharedStateFile == null ? null : SharedCircuitState.open(sharedStateFile);
+  }
+
+  // Keeps the circuit state and the consecutive failure count in the given file, memory-mapped, so that breakers built
+  // with the same file in processes on this host break, probe and close together. Only this breaker offers it: the
+  // advanced and sliding-window breakers judge by health windows kept in process, and sharing their state without
+  // those windows would leave each process to see the whole threshold on its own.
+  public CircuitBreakerPolicyBuilder<R> sharedStateFile(final Path sharedStateFile) {
+    Objects.requireNonNull(sharedStateFile, "sharedStateFile must not be null.");
+    this.sharedStateFile = sharedStateFile;
+    return self();
+  }
+
   @Override
   public CircuitBreakerPolicy<R, CircuitBreakerPolicyBuilder<R>> build() {
+    final var events = createEventPublisher();
     final var controller = new ConsecutiveCountCircuitBreakerController<>(failuresAllowedBeforeBreaking,
-      getDurationOfBreak(), getClock(), getOnBreak(), getOnReset(), getOnHalfOpen());
-    return new CircuitBreakerPolicy<>(this, controller);
+      getDurationOfBreak(), getClock(), getTicker(), events.onBreak(), events.onReset(), events.onHalfOpen(),
+      isStacklessRejections(), getHalfOpenProbes(), getHalfOpenSuccessRatio(), getRampUpDuration(),
+      getBreakDurationProvider(), getBreakCountResetAfter(), getSharedState());
+    return new CircuitBreakerPolicy<>(this, controller, events);
   }
 
   @Override
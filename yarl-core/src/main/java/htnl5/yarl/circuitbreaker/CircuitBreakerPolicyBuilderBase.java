@@ -1,9 +1,14 @@
 package htnl5.yarl.circuitbreaker;
 
 import htnl5.yarl.*;
+import htnl5.yarl.utilities.Ticker;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 
 public abstract class CircuitBreakerPolicyBuilderBase<R, B extends CircuitBreakerPolicyBuilderBase<R, B>>
@@ -11,13 +16,25 @@ public abstract class CircuitBreakerPolicyBuilderBase<R, B extends CircuitBreake
   implements IReactivePolicyBuilder<R, B> {
   private final ResultPredicates<R> resultPredicates = ResultPredicates.none();
   private final ExceptionPredicates exceptionPredicates = ExceptionPredicates.none();
-  private Clock clock = Clock.systemUTC();
+  private Clock clock;
+  private Ticker ticker;
   private EventListener<BreakEvent<? extends R>> onBreak = event -> {
   };
   private Consumer<Context> onReset = ctx -> {
   };
   private Runnable onHalfOpen = () -> {
   };
+  private boolean stacklessRejections;
+  private int halfOpenProbes = 1;
+  private double halfOpenSuccessRatio = 1d;
+  private Duration rampUpDuration = Duration.ZERO;
+  private BreakDurationProvider breakDurationProvider = BreakDurationEvent::durationOfBreak;
+  // Only set by exponentialBreakDuration; jitter must not take a break past it.
+  private Duration maxDurationOfBreak;
+  private double breakDurationJitter;
+  private Duration breakCountResetAfter = Duration.ZERO;
+  private Executor eventExecutor;
+  private int eventBufferCapacity = Flow.defaultBufferSize();
 
   @Override
   public ResultPredicates<R> getResultPredicates() {
@@ -30,7 +47,7 @@ public abstract class CircuitBreakerPolicyBuilderBase<R, B extends CircuitBreake
   }
 
   Clock getClock() {
-    return clock;
+    return clock == null ? Clock.systemUTC() : clock;
   }
 
   B clock(final Clock clock) {
@@ -39,8 +56,18 @@ public abstract class CircuitBreakerPolicyBuilderBase<R, B extends CircuitBreake
     return self();
   }
 
-  EventListener<BreakEvent<? extends R>> getOnBreak() {
-    return onBreak;
+  // A clock set for tests drives the ticker too, unless a ticker has been set as well.
+  Ticker getTicker() {
+    if (ticker != null) return ticker;
+    return clock == null ? Ticker.system() : Ticker.of(clock);
+  }
+
+  // Times breaks, half-open rounds, ramp-ups and health windows, System.nanoTime by default. Ticker.coarse trades
+  // resolution for a cheaper read.
+  public B ticker(final Ticker ticker) {
+    Objects.requireNonNull(ticker, "ticker must not be null.");
+    this.ticker = ticker;
+    return self();
   }
 
   public B onBreak(final EventListener<BreakEvent<? extends R>> onBreak) {
@@ -49,23 +76,144 @@ public abstract class CircuitBreakerPolicyBuilderBase<R, B extends CircuitBreake
     return self();
   }
 
-  Consumer<Context> getOnReset() {
-    return onReset;
-  }
-
   public B onReset(final Consumer<Context> onReset) {
     Objects.requireNonNull(onReset, "onReset must not be null.");
     this.onReset = onReset;
     return self();
   }
 
-  Runnable getOnHalfOpen() {
-    return onHalfOpen;
-  }
-
   public B onHalfOpen(final Runnable onHalfOpen) {
     Objects.requireNonNull(onHalfOpen, "onHalfOpen must not be null.");
     this.onHalfOpen = onHalfOpen;
     return self();
   }
+
+  boolean isStacklessRejections() {
+    return stacklessRejections;
+  }
+
+  // Rejected calls get an exception built once per break, without a stack trace, instead of a new one each time.
+  public B stacklessRejections() {
+    this.stacklessRejections = true;
+    return self();
+  }
+
+  int getHalfOpenProbes() {
+    return halfOpenProbes;
+  }
+
+  double getHalfOpenSuccessRatio() {
+    return halfOpenSuccessRatio;
+  }
+
+  // Lets up to halfOpenProbes trial calls through at once while half-open. The circuit closes once the given share of
+  // them has succeeded.
+  public B halfOpenProbes(final int halfOpenProbes, final double halfOpenSuccessRatio) {
+    if (halfOpenProbes <= 0) throw new IllegalArgumentException("halfOpenProbes must be greater than zero.");
+    if (halfOpenSuccessRatio <= 0d)
+      throw new IllegalArgumentException("halfOpenSuccessRatio must be greater than zero.");
+    if (halfOpenSuccessRatio > 1d)
+      throw new IllegalArgumentException("halfOpenSuccessRatio must be less than or equal to one.");
+    this.halfOpenProbes = halfOpenProbes;
+    this.halfOpenSuccessRatio = halfOpenSuccessRatio;
+    return self();
+  }
+
+  Duration getRampUpDuration() {
+    return rampUpDuration;
+  }
+
+  // After closing from half-open, admits a share of calls that grows from none to all over rampUpDuration and rejects
+  // the rest with BrokenCircuitException.
+  public B rampUp(final Duration rampUpDuration) {
+    Objects.requireNonNull(rampUpDuration, "rampUpDuration must not be null.");
+    if (rampUpDuration.isNegative())
+      throw new IllegalArgumentException("rampUpDuration must be greater than or equal to zero.");
+    this.rampUpDuration = rampUpDuration;
+    return self();
+  }
+
+  BreakDurationProvider getBreakDurationProvider() {
+    if (breakDurationJitter == 0d) return breakDurationProvider;
+    final var provider = breakDurationProvider;
+    final var jitter = breakDurationJitter;
+    final var maxMillis = maxDurationOfBreak == null ? Long.MAX_VALUE : maxDurationOfBreak.toMillis();
+    return event -> {
+      final var duration = provider.apply(event);
+      final var factor = 1d + jitter * (2d * ThreadLocalRandom.current().nextDouble() - 1d);
+      return Duration.ofMillis(Math.min((long) (duration.toMillis() * factor), maxMillis));
+    };
+  }
+
+  public B breakDurationProvider(final BreakDurationProvider breakDurationProvider) {
+    Objects.requireNonNull(breakDurationProvider, "breakDurationProvider must not be null.");
+    this.breakDurationProvider = breakDurationProvider;
+    maxDurationOfBreak = null;
+    return self();
+  }
+
+  // Each consecutive break lasts factor times longer than the one before, starting from durationOfBreak and capped at
+  // maxDurationOfBreak, which also bounds breakDurationJitter.
+  public B exponentialBreakDuration(final double factor, final Duration maxDurationOfBreak) {
+    Objects.requireNonNull(maxDurationOfBreak, "maxDurationOfBreak must not be null.");
+    // Written so that NaN fails too.
+    if (!(factor >= 1d)) throw new IllegalArgumentException("factor must be greater than or equal to one.");
+    if (maxDurationOfBreak.isNegative())
+      throw new IllegalArgumentException("maxDurationOfBreak must be greater than or equal to zero.");
+    final var maxMillis = (double) maxDurationOfBreak.toMillis();
+    breakDurationProvider(event -> {
+      final var millis = event.durationOfBreak().toMillis() * Math.pow(factor, event.consecutiveBreaks() - 1);
+      return Duration.ofMillis((long) Math.min(millis, maxMillis));
+    });
+    this.maxDurationOfBreak = maxDurationOfBreak;
+    return self();
+  }
+
+  double getBreakDurationJitter() {
+    return breakDurationJitter;
+  }
+
+  // Randomly lengthens or shortens each break by up to the given fraction, so that instances do not re-probe in step.
+  public B breakDurationJitter(final double breakDurationJitter) {
+    if (breakDurationJitter < 0d)
+      throw new IllegalArgumentException("breakDurationJitter must be greater than or equal to zero.");
+    if (breakDurationJitter > 1d)
+      throw new IllegalArgumentException("breakDurationJitter must be less than or equal to one.");
+    this.breakDurationJitter = breakDurationJitter;
+    return self();
+  }
+
+  Duration getBreakCountResetAfter() {
+    return breakCountResetAfter;
+  }
+
+  // How long the circuit must stay closed before the next break counts as the first again. By default any closed
+  // period resets the count, so only breaks straight out of half-open grow.
+  public B breakCountResetAfter(final Duration breakCountResetAfter) {
+    Objects.requireNonNull(breakCountResetAfter, "breakCountResetAfter must not be null.");
+    if (breakCountResetAfter.isNegative())
+      throw new IllegalArgumentException("breakCountResetAfter must be greater than or equal to zero.");
+    this.breakCountResetAfter = breakCountResetAfter;
+    return self();
+  }
+
+  CircuitBreakerEventPublisher<R> createEventPublisher() {
+    return new CircuitBreakerEventPublisher<>(eventExecutor, eventBufferCapacity, onBreak, onReset, onHalfOpen);
+  }
+
+  public B eventExecutor(final Executor eventExecutor) {
+    return eventExecutor(eventExecutor, Flow.defaultBufferSize());
+  }
+
+  // Runs onBreak, onReset and onHalfOpen on the executor, in order, instead of on the calling thread while the breaker
+  // is locked. Those listeners get every event however far behind they fall. Up to eventBufferCapacity events wait
+  // for each subscriber to getEvents; further events for that subscriber are dropped until it catches up.
+  public B eventExecutor(final Executor eventExecutor, final int eventBufferCapacity) {
+    Objects.requireNonNull(eventExecutor, "eventExecutor must not be null.");
+    if (eventBufferCapacity <= 0)
+      throw new IllegalArgumentException("eventBufferCapacity must be greater than zero.");
+    this.eventExecutor = eventExecutor;
+    this.eventBufferCapacity = eventBufferCapacity;
+    return self();
+  }
 }
@@ -3,36 +3,94 @@ package htnl5.yarl.circuitbreaker;
 import htnl5.yarl.Context;
 import htnl5.yarl.DelegateResult;
 import htnl5.yarl.EventListener;
+import htnl5.yarl.utilities.Ticker;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
 abstract class CircuitBreakerStateController<R> implements ICircuitBreakerController<R> {
+  private static final String BROKEN_CIRCUIT_MESSAGE = "The circuit is now open and is not allowing calls.";
+  private static final String ISOLATED_CIRCUIT_MESSAGE = "The circuit is manually held open and is not allowing calls.";
+  private static final String RAMP_UP_MESSAGE = "The circuit is ramping up and is not allowing this call.";
+  static final long CALLS_NOT_TIMED = Long.MAX_VALUE;
+  static final long NO_WINDOW = Long.MIN_VALUE;
+  private static final int SNAPSHOT_MAGIC = 0x59434253;
+  private static final int SNAPSHOT_VERSION = 2;
+  private static final int MAX_OUTCOME_SUMMARY_LENGTH = 1024;
+
   protected final Duration durationOfBreak;
+  // Breaks, probe rounds and ramp-ups are timed on the ticker. The clock only dates what leaves the process: the
+  // shared state file and snapshots.
   protected final Clock clock;
+  protected final Ticker ticker;
   protected final EventListener<BreakEvent<? extends R>> onBreak;
   protected final Consumer<Context> onReset;
   protected final Runnable onHalfOpen;
+  protected final boolean stacklessRejections;
+  protected final int halfOpenProbes;
+  private final int requiredHalfOpenSuccesses;
+  protected final Duration rampUpDuration;
+  protected final BreakDurationProvider breakDurationProvider;
+  protected final Duration breakCountResetAfter;
+  // Null unless the state is shared with other processes, which only the consecutive count breaker does.
+  protected final SharedCircuitState sharedState;
+
+  // Written under the lock, read without it on the hot paths.
+  protected volatile CircuitBreakerState state;
+  protected volatile long blockedUntil;
+  protected volatile DelegateResult<R> lastOutcome;
+  // With stacklessRejections, built once per break and thrown to every call rejected until the next transition.
+  private volatile BrokenCircuitException rejection;
+  private volatile BrokenCircuitException rampUpRejection;
 
-  protected CircuitBreakerState state;
-  protected long blockedUntil;
-  protected DelegateResult<R> lastOutcome;
+  // Probes let through in the current half-open round and their verdicts, guarded by the lock.
+  private int halfOpenProbesIssued;
+  private int halfOpenSuccesses;
+  private int halfOpenFailures;
+  // Breaks since the circuit was last closed for at least breakCountResetAfter, and when it last closed; guarded by
+  // the lock.
+  private int consecutiveBreaks;
+  private long closedAt = Long.MIN_VALUE;
+  // Non-zero while the circuit is admitting a growing share of calls after recovering.
+  private volatile long rampUpUntil;
+  // Automated breaks since the controller was created, including those adopted from other processes.
+  private volatile long trips;
+  // The last shared transition this controller has published or adopted; a new file starts closed at generation zero.
+  private volatile long sharedGeneration;
 
   protected final Lock lock = new ReentrantLock();
 
-  protected CircuitBreakerStateController(final Duration durationOfBreak, final Clock clock,
+  protected CircuitBreakerStateController(final Duration durationOfBreak, final Clock clock, final Ticker ticker,
                                           final EventListener<BreakEvent<? extends R>> onBreak,
-                                          final Consumer<Context> onReset, final Runnable onHalfOpen) {
+                                          final Consumer<Context> onReset, final Runnable onHalfOpen,
+                                          final boolean stacklessRejections, final int halfOpenProbes,
+                                          final double halfOpenSuccessRatio, final Duration rampUpDuration,
+                                          final BreakDurationProvider breakDurationProvider,
+                                          final Duration breakCountResetAfter,
+                                          final SharedCircuitState sharedState) {
     this.durationOfBreak = durationOfBreak;
     this.clock = clock;
+    this.ticker = ticker;
     this.onBreak = onBreak;
     this.onReset = onReset;
     this.onHalfOpen = onHalfOpen;
+    this.stacklessRejections = stacklessRejections;
+    this.halfOpenProbes = halfOpenProbes;
+    requiredHalfOpenSuccesses = Math.max(1, (int) Math.ceil(halfOpenProbes * halfOpenSuccessRatio));
+    this.rampUpDuration = rampUpDuration;
+    this.breakDurationProvider = breakDurationProvider;
+    this.breakCountResetAfter = breakCountResetAfter;
+    this.sharedState = sharedState;
 
     state = CircuitBreakerState.CLOSED;
     blockedUntil = 0L;
@@ -41,7 +99,10 @@ abstract class CircuitBreakerStateController<R> implements ICircuitBreakerContro
 
   @Override
   public CircuitBreakerState getState() {
-    if (state != CircuitBreakerState.OPEN) return state;
+    if (sharedState != null && sharedState.getGeneration() != sharedGeneration) adoptSharedState();
+    final var currentState = state;
+    // Rejections while the break lasts stay lock-free; only the move to half-open takes the lock.
+    if (currentState != CircuitBreakerState.OPEN || isInAutomatedBreak()) return currentState;
     lock.lock();
     try {
       if (state == CircuitBreakerState.OPEN && !isInAutomatedBreak()) {
@@ -64,61 +125,132 @@ abstract class CircuitBreakerStateController<R> implements ICircuitBreakerContro
     }
   }
 
-  private boolean isInAutomatedBreak() {
+  // Follows a break or close published by another process. A manually isolated circuit stays isolated.
+  private void adoptSharedState() {
     lock.lock();
     try {
-      return clock.millis() < blockedUntil;
+      final var generation = sharedState.getGeneration();
+      if (generation == sharedGeneration) return;
+      sharedGeneration = generation;
+      if (state == CircuitBreakerState.ISOLATED) return;
+      final var sharedBlockedUntil = sharedState.getBlockedUntil();
+      if (sharedBlockedUntil == 0L) {
+        if (state != CircuitBreakerState.CLOSED) close(Context.none());
+        return;
+      }
+      blockedUntil = toTickerMillis(sharedBlockedUntil);
+      final var transitionedState = state;
+      state = CircuitBreakerState.OPEN;
+      if (transitionedState != CircuitBreakerState.CLOSED) return;
+      trips++;
+      rampUpUntil = 0L;
+      if (stacklessRejections) rejection = createStacklessBreakingException();
+      final var durationOfBreak = Duration.ofMillis(Math.max(0L, blockedUntil - ticker.millis()));
+      onBreak.accept(new BreakEvent<>(lastOutcome, transitionedState, durationOfBreak, Context.none(),
+        getSlowCalls()));
     } finally {
       lock.unlock();
     }
   }
 
+  private boolean isInAutomatedBreak() {
+    return ticker.millis() < blockedUntil;
+  }
+
   @Override
   public void isolate() {
     lock.lock();
     try {
-      lastOutcome = DelegateResult.failure(new IsolatedCircuitBreakerException("The circuit is manually held open and" +
-        " is not allowing calls."));
+      lastOutcome = DelegateResult.failure(new IsolatedCircuitBreakerException(ISOLATED_CIRCUIT_MESSAGE));
       breakFor(Duration.ofMillis(Long.MAX_VALUE), Context.none());
       state = CircuitBreakerState.ISOLATED;
+      if (stacklessRejections) rejection = new IsolatedCircuitBreakerException(ISOLATED_CIRCUIT_MESSAGE, false, false);
     } finally {
       lock.unlock();
     }
   }
 
   protected void break_(final Context context) {
-    breakFor(durationOfBreak, context);
+    lock.lock();
+    try {
+      if (state == CircuitBreakerState.CLOSED && isStableSince(closedAt)) consecutiveBreaks = 0;
+      if (consecutiveBreaks < Integer.MAX_VALUE) consecutiveBreaks++;
+      final var duration = breakDurationProvider.apply(new BreakDurationEvent(consecutiveBreaks, durationOfBreak,
+        context));
+      breakFor(duration.isNegative() ? Duration.ZERO : duration, context);
+      trips++;
+      if (sharedState != null) sharedGeneration = sharedState.publishBreak(toWallMillis(blockedUntil));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean isStableSince(final long closedAt) {
+    final var now = ticker.millis();
+    return closedAt == Long.MIN_VALUE || now - closedAt >= breakCountResetAfter.toMillis();
   }
 
   private void breakFor(final Duration durationOfBreak, final Context context) {
     lock.lock();
     try {
-      final var willDurationTakeUsPastDateMaxValue = durationOfBreak.toMillis() > Long.MAX_VALUE - clock.millis();
+      final var now = ticker.millis();
+      final var willDurationTakeUsPastDateMaxValue = durationOfBreak.toMillis() > Long.MAX_VALUE - now;
       blockedUntil = willDurationTakeUsPastDateMaxValue
         ? new Date(Long.MAX_VALUE).getTime()
-        : clock.millis() + durationOfBreak.toMillis();
+        : now + durationOfBreak.toMillis();
       final var transitionedState = state;
       state = CircuitBreakerState.OPEN;
-      onBreak.accept(new BreakEvent<>(lastOutcome, transitionedState, durationOfBreak, context));
+      rampUpUntil = 0L;
+      if (stacklessRejections) rejection = createStacklessBreakingException();
+      onBreak.accept(new BreakEvent<>(lastOutcome, transitionedState, durationOfBreak, context, getSlowCalls()));
     } finally {
       lock.unlock();
     }
   }
 
+  @Override
+  public long getSlowCallDurationNanos() {
+    return CALLS_NOT_TIMED;
+  }
+
+  // Called under the lock.
+  protected int getSlowCalls() {
+    return 0;
+  }
+
   @Override
   public void reset() {
-    reset(new Context());
+    lock.lock();
+    try {
+      consecutiveBreaks = 0;
+      reset(new Context());
+    } finally {
+      lock.unlock();
+    }
   }
 
   protected abstract void resetSpecific();
 
   protected void reset(final Context context) {
+    lock.lock();
+    try {
+      close(context);
+      if (sharedState != null) sharedGeneration = sharedState.publishClose();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void close(final Context context) {
     resetSpecific();
 
     lock.lock();
     try {
       blockedUntil = 0L;
       lastOutcome = null;
+      rejection = null;
+      rampUpUntil = 0L;
+      closedAt = ticker.millis();
       final var priorState = state;
       state = CircuitBreakerState.CLOSED;
       if (priorState != CircuitBreakerState.CLOSED) {
@@ -129,42 +261,286 @@ abstract class CircuitBreakerStateController<R> implements ICircuitBreakerContro
     }
   }
 
+  // A round of half-open probes starts once blockedUntil has passed and lasts durationOfBreak; a round that has not
+  // reached a verdict by then is abandoned and a new one started.
   protected boolean permitHalfOpen() {
-    final var currentlyBlockedUntil = blockedUntil;
-    if (clock.millis() >= currentlyBlockedUntil) {
+    if (halfOpenProbes == 1 && ticker.millis() < blockedUntil) return false;
+    lock.lock();
+    try {
+      final var now = ticker.millis();
+      if (now >= blockedUntil) {
+        if (!claimSharedProbeRound()) return false;
+        blockedUntil = now + durationOfBreak.toMillis();
+        halfOpenProbesIssued = 0;
+        halfOpenSuccesses = 0;
+        halfOpenFailures = 0;
+      }
+      if (halfOpenProbesIssued >= halfOpenProbes) return false;
+      halfOpenProbesIssued++;
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Only one of the processes sharing the state probes in each round; the others wait for the round it claimed to end.
+  private boolean claimSharedProbeRound() {
+    if (sharedState == null) return true;
+    final var sharedBlockedUntil = sharedState.getBlockedUntil();
+    final var now = clock.millis();
+    if (now >= sharedBlockedUntil && sharedState.claimProbeRound(sharedBlockedUntil, now + durationOfBreak.toMillis()))
+      return true;
+    blockedUntil = toTickerMillis(sharedState.getBlockedUntil());
+    return false;
+  }
+
+  // Both keep 0 and Long.MAX_VALUE, which stand for no break and a break without end.
+  private long toWallMillis(final long tickerMillis) {
+    if (tickerMillis == 0L || tickerMillis == Long.MAX_VALUE) return tickerMillis;
+    return saturatedAdd(clock.millis(), tickerMillis - ticker.millis());
+  }
+
+  private long toTickerMillis(final long wallMillis) {
+    if (wallMillis == 0L || wallMillis == Long.MAX_VALUE) return wallMillis;
+    return saturatedAdd(ticker.millis(), wallMillis - clock.millis());
+  }
+
+  private static long saturatedAdd(final long time, final long millis) {
+    try {
+      return Math.addExact(time, millis);
+    } catch (final ArithmeticException e) {
+      return millis > 0L ? Long.MAX_VALUE : Long.MIN_VALUE;
+    }
+  }
+
+  private boolean isHalfOpenProbeAvailable() {
+    lock.lock();
+    try {
+      return ticker.millis() >= blockedUntil || halfOpenProbesIssued < halfOpenProbes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // The circuit closes once enough probes have succeeded, and breaks again as soon as too many have failed for that
+  // to happen.
+  protected void onHalfOpenSuccess(final Context context) {
+    lock.lock();
+    try {
+      halfOpenSuccesses++;
+      if (halfOpenSuccesses < requiredHalfOpenSuccesses) return;
+      reset(context);
+      startRampUp();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  protected void onHalfOpenFailure(final Context context) {
+    onHalfOpenFailure(context, null);
+  }
+
+  // breakingOutcome, when given, becomes the last outcome only if this failure breaks the circuit again.
+  protected void onHalfOpenFailure(final Context context, final DelegateResult<R> breakingOutcome) {
+    lock.lock();
+    try {
+      halfOpenFailures++;
+      if (halfOpenFailures <= halfOpenProbes - requiredHalfOpenSuccesses) return;
+      if (breakingOutcome != null) lastOutcome = breakingOutcome;
+      break_(context);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void startRampUp() {
+    if (rampUpDuration.isZero()) return;
+    final var now = ticker.millis();
+    final var willDurationTakeUsPastDateMaxValue = rampUpDuration.toMillis() > Long.MAX_VALUE - now;
+    rampUpUntil = willDurationTakeUsPastDateMaxValue ? Long.MAX_VALUE : now + rampUpDuration.toMillis();
+    if (stacklessRejections && rampUpRejection == null)
+      rampUpRejection = new BrokenCircuitException(RAMP_UP_MESSAGE, null, false, false);
+  }
+
+  // The share of calls admitted grows linearly from none to all over rampUpDuration.
+  private boolean admitDuringRampUp() {
+    final var currentRampUpUntil = rampUpUntil;
+    final var remaining = currentRampUpUntil - ticker.millis();
+    if (remaining <= 0L) {
       lock.lock();
       try {
-        final var originalBlockedUntil = blockedUntil;
-        if (blockedUntil == currentlyBlockedUntil) {
-          blockedUntil = clock.millis() + durationOfBreak.toMillis();
-        }
-        return originalBlockedUntil == currentlyBlockedUntil;
+        if (rampUpUntil == currentRampUpUntil) rampUpUntil = 0L;
       } finally {
         lock.unlock();
       }
+      return true;
     }
-    return false;
+    final var share = 1d - ((double) remaining) / rampUpDuration.toMillis();
+    return ThreadLocalRandom.current().nextDouble() < share;
+  }
+
+  private BrokenCircuitException getRampUpException() {
+    final var rampUpRejection = this.rampUpRejection;
+    if (rampUpRejection != null) return rampUpRejection;
+    return new BrokenCircuitException(RAMP_UP_MESSAGE);
   }
 
   private BrokenCircuitException getBreakingException() {
-    final var brokenCircuitMessage = "The circuit is now open and is not allowing calls.";
+    final var rejection = this.rejection;
+    if (rejection != null) return rejection;
     final var lastOutcome = this.lastOutcome;
-    if (lastOutcome == null) return new BrokenCircuitException(brokenCircuitMessage);
-    return lastOutcome.match(r -> new BrokenCircuitWithResultException(brokenCircuitMessage, r),
-      e -> new BrokenCircuitException(brokenCircuitMessage, e));
+    if (lastOutcome == null) return new BrokenCircuitException(BROKEN_CIRCUIT_MESSAGE);
+    return lastOutcome.match(r -> new BrokenCircuitWithResultException(BROKEN_CIRCUIT_MESSAGE, r),
+      e -> new BrokenCircuitException(BROKEN_CIRCUIT_MESSAGE, e));
+  }
+
+  private BrokenCircuitException createStacklessBreakingException() {
+    final var lastOutcome = this.lastOutcome;
+    if (lastOutcome == null) return new BrokenCircuitException(BROKEN_CIRCUIT_MESSAGE, null, false, false);
+    return lastOutcome.match(r -> new BrokenCircuitWithResultException(BROKEN_CIRCUIT_MESSAGE, false, false, r),
+      e -> new BrokenCircuitException(BROKEN_CIRCUIT_MESSAGE, e, false, false));
+  }
+
+  private BrokenCircuitException getIsolatedException() {
+    final var rejection = this.rejection;
+    if (rejection instanceof IsolatedCircuitBreakerException) return rejection;
+    return new IsolatedCircuitBreakerException(ISOLATED_CIRCUIT_MESSAGE);
   }
 
   @Override
   public void onActionPreExecute() throws BrokenCircuitException {
     switch (getState()) {
       case CLOSED -> {
+        if (rampUpUntil != 0L && !admitDuringRampUp()) throw getRampUpException();
       }
       case OPEN -> throw getBreakingException();
       case HALF_OPEN -> {
         if (!permitHalfOpen()) throw getBreakingException();
       }
-      case ISOLATED ->
-        throw new IsolatedCircuitBreakerException("The circuit is manually held open and is not allowing calls.");
+      case ISOLATED -> throw getIsolatedException();
+    }
+  }
+
+  // Reads each field once without the lock, so the parts may be a transition apart. A break that has run out is
+  // reported as half-open even before a call has moved the circuit on.
+  @Override
+  public CircuitBreakerHealth getHealth() {
+    final var state = this.state;
+    final var blockedUntil = this.blockedUntil;
+    final var now = ticker.millis();
+    final var healthCount = peekHealthCount();
+    final var reportedState = state == CircuitBreakerState.OPEN && now >= blockedUntil
+      ? CircuitBreakerState.HALF_OPEN
+      : state;
+    final var untilHalfOpen = reportedState == CircuitBreakerState.OPEN || reportedState == CircuitBreakerState.ISOLATED
+      ? Duration.ofMillis(blockedUntil - now)
+      : Duration.ZERO;
+    final var windowStartedAt = healthCount.getStartedAt() == NO_WINDOW
+      ? null
+      : Instant.ofEpochMilli(clock.millis() - (now - healthCount.getStartedAt()));
+    return new CircuitBreakerHealth(reportedState, healthCount.getSuccesses(), healthCount.getFailures(),
+      windowStartedAt, untilHalfOpen, trips);
+  }
+
+  // The counts the controller judges by, read without the lock. startedAt is in ticker time, or NO_WINDOW.
+  protected abstract HealthCount peekHealthCount();
+
+  // The snapshot holds when it was taken, the state, blockedUntil, the break count, a summary of the last outcome and
+  // then whatever the controller counts outcomes with. Times are wall-clock, since the ticker of the process that
+  // reads the snapshot starts afresh.
+  @Override
+  public void writeState(final DataOutput output) throws IOException {
+    lock.lock();
+    try {
+      output.writeInt(SNAPSHOT_MAGIC);
+      output.writeByte(SNAPSHOT_VERSION);
+      output.writeUTF(getClass().getSimpleName());
+      output.writeLong(clock.millis());
+      output.writeByte(state.ordinal());
+      output.writeLong(toWallMillis(blockedUntil));
+      output.writeInt(consecutiveBreaks);
+      final var lastOutcome = this.lastOutcome;
+      output.writeBoolean(lastOutcome != null);
+      if (lastOutcome != null) output.writeUTF(summarise(lastOutcome));
+      writeSpecific(output);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static String summarise(final DelegateResult<?> outcome) {
+    final var summary = outcome.match(r -> "Result: " + r, Throwable::toString);
+    return summary.length() <= MAX_OUTCOME_SUMMARY_LENGTH ? summary : summary.substring(0, MAX_OUTCOME_SUMMARY_LENGTH);
+  }
+
+  // Restores quietly, without raising break or reset events.
+  @Override
+  public void readState(final DataInput input) throws IOException {
+    if (input.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not a circuit breaker snapshot.");
+    if (input.readUnsignedByte() != SNAPSHOT_VERSION)
+      throw new IOException("Unsupported circuit breaker snapshot version.");
+    if (!input.readUTF().equals(getClass().getSimpleName()))
+      throw new IOException("The snapshot was taken of a different kind of circuit breaker.");
+    final var savedAt = input.readLong();
+    final var states = CircuitBreakerState.values();
+    final var stateOrdinal = input.readUnsignedByte();
+    if (stateOrdinal >= states.length) throw new IOException("Unknown circuit state in snapshot.");
+    final var restoredState = states[stateOrdinal];
+    final var restoredBlockedUntil = toTickerMillis(input.readLong());
+    final var restoredConsecutiveBreaks = input.readInt();
+    final DelegateResult<R> restoredOutcome = input.readBoolean()
+      ? DelegateResult.failure(new RestoredOutcomeException(input.readUTF()))
+      : null;
+    final var restoreSpecific = readSpecific(input, Math.max(0L, clock.millis() - savedAt));
+    lock.lock();
+    try {
+      resetSpecific();
+      restoreSpecific.run();
+      consecutiveBreaks = Math.max(0, restoredConsecutiveBreaks);
+      lastOutcome = restoredOutcome;
+      rampUpUntil = 0L;
+      halfOpenProbesIssued = 0;
+      halfOpenSuccesses = 0;
+      halfOpenFailures = 0;
+      switch (restoredState) {
+        case CLOSED -> {
+          blockedUntil = 0L;
+          state = CircuitBreakerState.CLOSED;
+          closedAt = ticker.millis();
+          rejection = null;
+        }
+        case OPEN, HALF_OPEN -> {
+          blockedUntil = restoredBlockedUntil;
+          state = CircuitBreakerState.OPEN;
+          rejection = stacklessRejections ? createStacklessBreakingException() : null;
+        }
+        case ISOLATED -> {
+          blockedUntil = restoredBlockedUntil;
+          state = CircuitBreakerState.ISOLATED;
+          rejection = stacklessRejections
+            ? new IsolatedCircuitBreakerException(ISOLATED_CIRCUIT_MESSAGE, false, false)
+            : null;
+        }
+      }
+    } finally {
+      lock.unlock();
     }
   }
+
+  // Called under the lock.
+  protected abstract void writeSpecific(final DataOutput output) throws IOException;
+
+  // Parses without the lock and without touching the live counts; the returned task applies the parsed counts, and is
+  // run under the lock once the whole snapshot has been read.
+  protected abstract Runnable readSpecific(final DataInput input, final long elapsedMillis) throws IOException;
+
+  @Override
+  public Optional<BrokenCircuitException> peekRejection() {
+    return switch (getState()) {
+      case CLOSED -> Optional.empty();
+      case OPEN -> Optional.of(getBreakingException());
+      case HALF_OPEN -> isHalfOpenProbeAvailable() ? Optional.empty() : Optional.of(getBreakingException());
+      case ISOLATED -> Optional.of(getIsolatedException());
+    };
+  }
 }
@@ -3,43 +3,94 @@ package htnl5.yarl.circuitbreaker;
 import htnl5.yarl.Context;
 import htnl5.yarl.DelegateResult;
 import htnl5.yarl.EventListener;
+import htnl5.yarl.utilities.Ticker;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Clock;
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
+// Outcomes in the CLOSED state are recorded without the lock; it is only taken to change state. With shared state the
+// count is kept in the shared file, so failures in any of the processes add up.
 class ConsecutiveCountCircuitBreakerController<R> extends CircuitBreakerStateController<R> {
   private final int failuresAllowedBeforeBreaking;
 
-  private int consecutiveFailureCount;
+  private final AtomicInteger consecutiveFailureCount = new AtomicInteger();
 
   ConsecutiveCountCircuitBreakerController(int failuresAllowedBeforeBreaking, final Duration durationOfBreak,
-                                           final Clock clock, final EventListener<BreakEvent<? extends R>> onBreak,
-                                           final Consumer<Context> onReset, final Runnable onHalfOpen) {
-    super(durationOfBreak, clock, onBreak, onReset, onHalfOpen);
+                                           final Clock clock, final Ticker ticker,
+                                           final EventListener<BreakEvent<? extends R>> onBreak,
+                                           final Consumer<Context> onReset, final Runnable onHalfOpen,
+                                           final boolean stacklessRejections, final int halfOpenProbes,
+                                           final double halfOpenSuccessRatio, final Duration rampUpDuration,
+                                           final BreakDurationProvider breakDurationProvider,
+                                           final Duration breakCountResetAfter,
+                                           final SharedCircuitState sharedState) {
+    super(durationOfBreak, clock, ticker, onBreak, onReset, onHalfOpen, stacklessRejections, halfOpenProbes,
+      halfOpenSuccessRatio, rampUpDuration, breakDurationProvider, breakCountResetAfter,
+      sharedState);
     this.failuresAllowedBeforeBreaking = failuresAllowedBeforeBreaking;
-    consecutiveFailureCount = 0;
   }
 
+  // Only the local count. A shared count is reset by the process that publishes the close; one that merely adopts
+  // it must not wipe failures recorded since.
   @Override
   protected void resetSpecific() {
-    lock.lock();
-    try {
-      consecutiveFailureCount = 0;
-    } finally {
-      lock.unlock();
-    }
+    consecutiveFailureCount.set(0);
+  }
+
+  @Override
+  protected HealthCount peekHealthCount() {
+    final var failures = sharedState == null
+      ? consecutiveFailureCount.get()
+      : (int) Math.min(sharedState.getFailureCount(), Integer.MAX_VALUE);
+    return new HealthCount(0, failures, NO_WINDOW);
+  }
+
+  @Override
+  protected void writeSpecific(final DataOutput output) throws IOException {
+    output.writeLong(sharedState == null ? consecutiveFailureCount.get() : sharedState.getFailureCount());
+  }
+
+  // A shared count outlives the process in its file already, so it is left as it is.
+  @Override
+  protected Runnable readSpecific(final DataInput input, final long elapsedMillis) throws IOException {
+    final var count = (int) Math.max(0L, Math.min(input.readLong(), Integer.MAX_VALUE));
+    return () -> {
+      if (sharedState == null) consecutiveFailureCount.set(count);
+    };
+  }
+
+  private int incrementFailureCount() {
+    if (sharedState == null) return consecutiveFailureCount.incrementAndGet();
+    return (int) Math.min(sharedState.incrementFailureCount(), Integer.MAX_VALUE);
+  }
+
+  private boolean hasFailures() {
+    return sharedState == null ? consecutiveFailureCount.get() != 0 : sharedState.getFailureCount() != 0L;
+  }
+
+  private void resetFailureCount() {
+    if (sharedState == null) consecutiveFailureCount.set(0);
+    else sharedState.resetFailureCount();
   }
 
   @Override
-  public void onActionSuccess(final Context context) {
+  public void onActionSuccess(final R result, final Context context, final boolean slow) {
+    if (state == CircuitBreakerState.CLOSED) {
+      if (hasFailures()) resetFailureCount();
+      return;
+    }
     lock.lock();
     try {
       switch (state) {
-        case CLOSED -> consecutiveFailureCount = 0;
+        case CLOSED -> resetFailureCount();
         case OPEN, ISOLATED -> {
         }
-        case HALF_OPEN -> reset(context);
+        case HALF_OPEN -> onHalfOpenSuccess(context);
       }
     } finally {
       lock.unlock();
@@ -47,20 +98,31 @@ class ConsecutiveCountCircuitBreakerController<R> extends CircuitBreakerStateCon
   }
 
   @Override
-  public void onActionFailure(final DelegateResult<R> outcome, final Context context) {
+  public void onActionFailure(final DelegateResult<R> outcome, final Context context, final boolean slow) {
+    if (state == CircuitBreakerState.CLOSED) {
+      lastOutcome = outcome;
+      if (incrementFailureCount() < failuresAllowedBeforeBreaking) return;
+      lock.lock();
+      try {
+        lastOutcome = outcome;
+        if (state == CircuitBreakerState.CLOSED) break_(context);
+      } finally {
+        lock.unlock();
+      }
+      return;
+    }
     lock.lock();
     try {
       lastOutcome = outcome;
       switch (state) {
         case CLOSED -> {
-          consecutiveFailureCount += 1;
-          if (consecutiveFailureCount >= failuresAllowedBeforeBreaking) {
+          if (incrementFailureCount() >= failuresAllowedBeforeBreaking) {
             break_(context);
           }
         }
         case OPEN, ISOLATED -> {
         }
-        case HALF_OPEN -> break_(context);
+        case HALF_OPEN -> onHalfOpenFailure(context);
       }
     } finally {
       lock.unlock();
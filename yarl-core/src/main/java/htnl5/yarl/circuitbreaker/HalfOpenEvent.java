@@ -0,0 +1,5 @@
+package htnl5.yarl.circuitbreaker;
+
+// producer
+public record HalfOpenEvent<R>() implements CircuitBreakerEvent<R> {
+}
@@ -3,6 +3,7 @@ package htnl5.yarl.circuitbreaker;
 class HealthCount {
   private int successes;
   private int failures;
+  private int slowCalls;
   private long startedAt;
 
   public HealthCount(final int successes, final int failures, final long startedAt) {
@@ -33,6 +34,15 @@ class HealthCount {
     return this;
   }
 
+  public int getSlowCalls() {
+    return slowCalls;
+  }
+
+  public HealthCount setSlowCalls(final int slowCalls) {
+    this.slowCalls = slowCalls;
+    return this;
+  }
+
   public int getTotal() {
     return successes + failures;
   }
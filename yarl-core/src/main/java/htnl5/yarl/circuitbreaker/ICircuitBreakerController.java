@@ -3,6 +3,9 @@ package htnl5.yarl.circuitbreaker;
 import htnl5.yarl.Context;
 import htnl5.yarl.DelegateResult;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Optional;
 
 interface ICircuitBreakerController<R> {
@@ -16,7 +19,20 @@ interface ICircuitBreakerController<R> {
 
   void onActionPreExecute() throws BrokenCircuitException;
 
-  void onActionSuccess(final Context context);
+  // The exception onActionPreExecute would certainly throw, without taking a half-open trial permit.
+  Optional<BrokenCircuitException> peekRejection();
 
-  void onActionFailure(final DelegateResult<R> outcome, final Context context);
+  // Calls that take at least this long are reported as slow. Long.MAX_VALUE when the controller does not time calls.
+  long getSlowCallDurationNanos();
+
+  void onActionSuccess(final R result, final Context context, final boolean slow);
+
+  void onActionFailure(final DelegateResult<R> outcome, final Context context, final boolean slow);
+
+  // Never waits for the lock.
+  CircuitBreakerHealth getHealth();
+
+  void writeState(final DataOutput output) throws IOException;
+
+  void readState(final DataInput input) throws IOException;
 }
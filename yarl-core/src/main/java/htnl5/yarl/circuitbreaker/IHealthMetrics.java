@@ -1,11 +1,47 @@
 package htnl5.yarl.circuitbreaker;
 
-sealed interface IHealthMetrics permits RollingHealthMetrics, SingleHealthMetrics {
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Recording is thread-safe. getHealthCount may return an object that is reused by the next call, so callers read it
+// under the controller lock.
+sealed interface IHealthMetrics permits RollingHealthMetrics, SingleHealthMetrics, StripedHealthMetrics {
   void incrementSuccess();
 
   void incrementFailure();
 
+  // Recorded alongside, not instead of, the call's success or failure.
+  void incrementSlowCall();
+
   void reset();
 
   HealthCount getHealthCount();
+
+  // A new count for polling from outside the breaker. It is read optimistically, and only waits for the lock when a
+  // recording overlaps the read.
+  HealthCount peekHealthCount();
+
+  // Windows are written as a count followed by the age in milliseconds, successes, failures and slow calls of each,
+  // oldest first, so that any implementation can read what another wrote, whatever its ticker. Restoring ages the
+  // windows by the time elapsed since they were written and drops those that have aged out.
+  void writeTo(final DataOutput output) throws IOException;
+
+  // Parses the windows without touching the live counts, so that a snapshot which turns out to be corrupt changes
+  // nothing.
+  static List<SavedWindow> readWindows(final DataInput input) throws IOException {
+    final var count = input.readInt();
+    final var windows = new ArrayList<SavedWindow>();
+    for (var i = 0; i < count; i++) {
+      windows.add(new SavedWindow(input.readLong(), input.readInt(), input.readInt(), input.readInt()));
+    }
+    return windows;
+  }
+
+  void restore(final List<SavedWindow> windows, final long elapsedMillis);
+
+  record SavedWindow(long age, int successes, int failures, int slowCalls) {
+  }
 }
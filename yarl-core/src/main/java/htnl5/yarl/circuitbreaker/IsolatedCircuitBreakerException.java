@@ -4,4 +4,9 @@ public final class IsolatedCircuitBreakerException extends BrokenCircuitExceptio
   public IsolatedCircuitBreakerException(final String message) {
     super(message);
   }
+
+  public IsolatedCircuitBreakerException(final String message, final boolean enableSuppression,
+                                         final boolean writableStackTrace) {
+    super(message, null, enableSuppression, writableStackTrace);
+  }
 }
@@ -0,0 +1,106 @@
+package htnl5.yarl.circuitbreaker;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+// The outcomes of the last windowSize calls, one bit per call (set for a failure), with a running count of the set
+// bits. Recording overwrites the oldest bit, so it costs the same however large the window is. Not thread-safe, apart
+// from peekCounts.
+final class OutcomeRing {
+  private final int windowSize;
+  private final long[] bits;
+  private int position;
+  private int size;
+  private int failures;
+  // size and failures packed together, so that both can be read at once from any thread.
+  private volatile long published;
+
+  OutcomeRing(final int windowSize) {
+    this.windowSize = windowSize;
+    bits = new long[(windowSize + Long.SIZE - 1) / Long.SIZE];
+  }
+
+  void record(final boolean failure) {
+    final var word = position >>> 6;
+    final var mask = 1L << position;
+    if (size == windowSize) {
+      if ((bits[word] & mask) != 0L) failures--;
+    } else {
+      size++;
+    }
+    if (failure) {
+      bits[word] |= mask;
+      failures++;
+    } else {
+      bits[word] &= ~mask;
+    }
+    position = position + 1 == windowSize ? 0 : position + 1;
+    published = ((long) size << 32) | failures;
+  }
+
+  int getSize() {
+    return size;
+  }
+
+  int getFailures() {
+    return failures;
+  }
+
+  long peekCounts() {
+    return published;
+  }
+
+  static int sizeOf(final long counts) {
+    return (int) (counts >>> 32);
+  }
+
+  static int failuresOf(final long counts) {
+    return (int) counts;
+  }
+
+  // Written as the number of outcomes followed by their bits, oldest first, packed into longs.
+  void writeTo(final DataOutput output) throws IOException {
+    output.writeInt(size);
+    final var oldest = size == windowSize ? position : 0;
+    var word = 0L;
+    for (var i = 0; i < size; i++) {
+      final var index = (oldest + i) % windowSize;
+      if ((bits[index >>> 6] & (1L << index)) != 0L) word |= 1L << i;
+      if ((i & 63) == 63 || i == size - 1) {
+        output.writeLong(word);
+        word = 0L;
+      }
+    }
+  }
+
+  // Parses into a new ring of the same size, leaving this one as it is. A window larger than this one keeps only its
+  // most recent outcomes.
+  OutcomeRing readSaved(final DataInput input) throws IOException {
+    final var saved = new OutcomeRing(windowSize);
+    final var count = input.readInt();
+    var word = 0L;
+    for (var i = 0; i < count; i++) {
+      if ((i & 63) == 0) word = input.readLong();
+      saved.record((word & (1L << i)) != 0L);
+    }
+    return saved;
+  }
+
+  void restore(final OutcomeRing saved) {
+    System.arraycopy(saved.bits, 0, bits, 0, bits.length);
+    position = saved.position;
+    size = saved.size;
+    failures = saved.failures;
+    published = saved.published;
+  }
+
+  void reset() {
+    Arrays.fill(bits, 0L);
+    position = 0;
+    size = 0;
+    failures = 0;
+    published = 0L;
+  }
+}
@@ -0,0 +1,7 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.Context;
+
+// producer
+public record ResetEvent<R>(Context context) implements CircuitBreakerEvent<R> {
+}
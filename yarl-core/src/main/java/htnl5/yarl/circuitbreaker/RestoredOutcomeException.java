@@ -0,0 +1,9 @@
+package htnl5.yarl.circuitbreaker;
+
+// Stands in for the last outcome of a circuit restored from a saved state. The message is a summary of the original
+// result or exception.
+public final class RestoredOutcomeException extends RuntimeException {
+  public RestoredOutcomeException(final String message) {
+    super(message);
+  }
+}
@@ -1,94 +1,217 @@
 package htnl5.yarl.circuitbreaker;
 
-import java.time.Clock;
+import htnl5.yarl.utilities.Ticker;
+
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Duration;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
 
+// Windows are kept in a ring of primitive buckets, oldest at head. Totals over the live windows are maintained as
+// windows are opened and expired, so recording and reading never walk the ring or allocate. Recording holds the write
+// lock; peeking reads the ring optimistically and tries again if a recording overlapped it.
 final class RollingHealthMetrics implements IHealthMetrics {
   private final long samplingDuration;
   private final long windowDuration;
-  private final Clock clock;
-  private final Queue<HealthCount> windows;
+  private final Ticker ticker;
+
+  // Window starts are at least windowDuration apart and all within samplingDuration of now, which bounds the number
+  // of live windows to numberOfWindows + 1 once windowDuration has been rounded down.
+  private final long[] startedAt;
+  private final int[] successes;
+  private final int[] failures;
+  private final int[] slowCalls;
+  private int head;
+  private int size;
 
-  private HealthCount currentWindow;
+  private final HealthCount total = new HealthCount(0L);
+  private final HealthCount snapshot = new HealthCount(0L);
 
-  private final Lock lock = new ReentrantLock();
+  private final StampedLock lock = new StampedLock();
 
-  public RollingHealthMetrics(final Duration samplingDuration, final Clock clock, final int numberOfWindows) {
+  public RollingHealthMetrics(final Duration samplingDuration, final Ticker ticker, final int numberOfWindows) {
     this.samplingDuration = samplingDuration.toMillis();
     this.windowDuration = this.samplingDuration / numberOfWindows;
-    this.clock = clock;
-    windows = new LinkedList<>();
+    this.ticker = ticker;
+    startedAt = new long[numberOfWindows + 1];
+    successes = new int[numberOfWindows + 1];
+    failures = new int[numberOfWindows + 1];
+    slowCalls = new int[numberOfWindows + 1];
   }
 
-
   @Override
   public void incrementSuccess() {
-    lock.lock();
+    final var stamp = lock.writeLock();
     try {
-      actualiseCurrentMetric();
-      currentWindow.setSuccesses(currentWindow.getSuccesses() + 1);
+      final var current = actualiseCurrentMetric();
+      successes[current]++;
+      total.setSuccesses(total.getSuccesses() + 1);
     } finally {
-      lock.unlock();
+      lock.unlockWrite(stamp);
     }
   }
 
   @Override
   public void incrementFailure() {
-    lock.lock();
+    final var stamp = lock.writeLock();
     try {
-      actualiseCurrentMetric();
-      currentWindow.setFailures(currentWindow.getFailures() + 1);
+      final var current = actualiseCurrentMetric();
+      failures[current]++;
+      total.setFailures(total.getFailures() + 1);
     } finally {
-      lock.unlock();
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void incrementSlowCall() {
+    final var stamp = lock.writeLock();
+    try {
+      final var current = actualiseCurrentMetric();
+      slowCalls[current]++;
+      total.setSlowCalls(total.getSlowCalls() + 1);
+    } finally {
+      lock.unlockWrite(stamp);
     }
   }
 
   @Override
   public void reset() {
-    lock.lock();
+    final var stamp = lock.writeLock();
     try {
-      currentWindow = null;
-      windows.clear();
+      head = 0;
+      size = 0;
+      total.setSuccesses(0).setFailures(0).setSlowCalls(0);
     } finally {
-      lock.unlock();
+      lock.unlockWrite(stamp);
     }
   }
 
   @Override
   public HealthCount getHealthCount() {
-    lock.lock();
+    final var stamp = lock.writeLock();
     try {
       actualiseCurrentMetric();
-      var successes = 0;
-      var failures = 0;
-      for (final HealthCount window : windows) {
-        successes += window.getSuccesses();
-        failures += window.getFailures();
-      }
-      return new HealthCount(successes, failures, windows.peek().getStartedAt());
+      return snapshot.setSuccesses(total.getSuccesses())
+        .setFailures(total.getFailures())
+        .setSlowCalls(total.getSlowCalls())
+        .setStartedAt(startedAt[head]);
     } finally {
-      lock.unlock();
+      lock.unlockWrite(stamp);
     }
   }
 
-  private void actualiseCurrentMetric() {
-    lock.lock();
+  @Override
+  public HealthCount peekHealthCount() {
+    final var stamp = lock.tryOptimisticRead();
+    final var healthCount = readWindow();
+    if (lock.validate(stamp)) return healthCount;
+    final var readStamp = lock.readLock();
     try {
-      final var now = clock.millis();
-      if (currentWindow == null || now - currentWindow.getStartedAt() >= windowDuration) {
-        currentWindow = new HealthCount(now);
-        windows.add(currentWindow);
+      return readWindow();
+    } finally {
+      lock.unlockRead(readStamp);
+    }
+  }
+
+  private HealthCount readWindow() {
+    final var now = ticker.millis();
+    final var head = this.head;
+    final var size = this.size;
+    var windowSuccesses = 0;
+    var windowFailures = 0;
+    var windowSlowCalls = 0;
+    var oldest = now;
+    for (var i = 0; i < size; i++) {
+      final var index = (head + i) % startedAt.length;
+      if (now - startedAt[index] >= samplingDuration) continue;
+      windowSuccesses += successes[index];
+      windowFailures += failures[index];
+      windowSlowCalls += slowCalls[index];
+      oldest = Math.min(oldest, startedAt[index]);
+    }
+    return new HealthCount(windowSuccesses, windowFailures, oldest).setSlowCalls(windowSlowCalls);
+  }
+
+  @Override
+  public void writeTo(final DataOutput output) throws IOException {
+    final var stamp = lock.writeLock();
+    try {
+      final var now = ticker.millis();
+      var live = 0;
+      for (var i = 0; i < size; i++) {
+        if (now - startedAt[(head + i) % startedAt.length] < samplingDuration) live++;
+      }
+      output.writeInt(live);
+      for (var i = 0; i < size; i++) {
+        final var index = (head + i) % startedAt.length;
+        if (now - startedAt[index] >= samplingDuration) continue;
+        output.writeLong(now - startedAt[index]);
+        output.writeInt(successes[index]);
+        output.writeInt(failures[index]);
+        output.writeInt(slowCalls[index]);
       }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
 
-      while (windows.size() > 0 && (now - windows.peek().getStartedAt() >= samplingDuration)) {
-        windows.poll();
+  @Override
+  public void restore(final List<SavedWindow> windows, final long elapsedMillis) {
+    final var stamp = lock.writeLock();
+    try {
+      head = 0;
+      size = 0;
+      total.setSuccesses(0).setFailures(0).setSlowCalls(0);
+      final var now = ticker.millis();
+      for (final var window : windows) {
+        final var age = window.age() + elapsedMillis;
+        final var windowSuccesses = window.successes();
+        final var windowFailures = window.failures();
+        final var windowSlowCalls = window.slowCalls();
+        if (age < 0L || age >= samplingDuration) continue;
+        if (size == startedAt.length) {
+          total.setSuccesses(total.getSuccesses() - successes[head])
+            .setFailures(total.getFailures() - failures[head])
+            .setSlowCalls(total.getSlowCalls() - slowCalls[head]);
+          head = (head + 1) % startedAt.length;
+          size--;
+        }
+        final var index = (head + size) % startedAt.length;
+        startedAt[index] = now - age;
+        successes[index] = windowSuccesses;
+        failures[index] = windowFailures;
+        slowCalls[index] = windowSlowCalls;
+        total.setSuccesses(total.getSuccesses() + windowSuccesses)
+          .setFailures(total.getFailures() + windowFailures)
+          .setSlowCalls(total.getSlowCalls() + windowSlowCalls);
+        size++;
       }
     } finally {
-      lock.unlock();
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private int actualiseCurrentMetric() {
+    final var now = ticker.millis();
+    while (size > 0 && now - startedAt[head] >= samplingDuration) {
+      total.setSuccesses(total.getSuccesses() - successes[head])
+        .setFailures(total.getFailures() - failures[head])
+        .setSlowCalls(total.getSlowCalls() - slowCalls[head]);
+      head = (head + 1) % startedAt.length;
+      size--;
+    }
+
+    var current = (head + size - 1) % startedAt.length;
+    if (size == 0 || now - startedAt[current] >= windowDuration) {
+      current = (head + size) % startedAt.length;
+      startedAt[current] = now;
+      successes[current] = 0;
+      failures[current] = 0;
+      slowCalls[current] = 0;
+      size++;
     }
+    return current;
   }
 }
@@ -0,0 +1,101 @@
+package htnl5.yarl.circuitbreaker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Circuit state kept in a small memory-mapped file, so that breakers in processes on the same host that map the same
+// file break, probe and close together. Every slot is an 8-byte aligned long accessed through a VarHandle, which makes
+// the reads and writes atomic across processes. A new, zero-filled file is a closed circuit.
+//
+// Whether the circuit is open and until when is a single slot, BLOCKED_UNTIL, which is 0 while closed. Every transition
+// is one CAS on it, so processes that break and close at the same time can never leave a torn state behind.
+final class SharedCircuitState {
+  private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+  private static final int SIZE = 64;
+  // Bumped on every break and close, so that a process can tell cheaply whether it has missed a transition.
+  private static final int GENERATION = 0;
+  // Offset 8 is reserved.
+  private static final int BLOCKED_UNTIL = 16;
+  private static final int FAILURE_COUNT = 24;
+
+  private final MappedByteBuffer buffer;
+
+  private SharedCircuitState(final MappedByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  static SharedCircuitState open(final Path file) {
+    try (final var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+      StandardOpenOption.WRITE)) {
+      return new SharedCircuitState(channel.map(FileChannel.MapMode.READ_WRITE, 0, SIZE));
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Could not map shared circuit state file %s.".formatted(file), e);
+    }
+  }
+
+  long getGeneration() {
+    return (long) LONGS.getVolatile(buffer, GENERATION);
+  }
+
+  // 0 while the circuit is closed.
+  long getBlockedUntil() {
+    return (long) LONGS.getVolatile(buffer, BLOCKED_UNTIL);
+  }
+
+  // Both return the generation of the published transition.
+  long publishBreak(final long blockedUntil) {
+    final var value = Math.max(1L, blockedUntil);
+    long current;
+    do {
+      current = getBlockedUntil();
+    } while (!LONGS.compareAndSet(buffer, BLOCKED_UNTIL, current, value));
+    resetFailureCount();
+    return bumpGeneration(value);
+  }
+
+  long publishClose() {
+    long current;
+    do {
+      current = getBlockedUntil();
+      if (current == 0L) {
+        resetFailureCount();
+        return getGeneration();
+      }
+    } while (!LONGS.compareAndSet(buffer, BLOCKED_UNTIL, current, 0L));
+    resetFailureCount();
+    return bumpGeneration(0L);
+  }
+
+  // When another process has already replaced the published value, the generation before the bump is returned, so
+  // that the publisher still sees a generation it has not adopted and follows the newer transition.
+  private long bumpGeneration(final long published) {
+    final var generation = (long) LONGS.getAndAdd(buffer, GENERATION, 1L) + 1L;
+    return getBlockedUntil() == published ? generation : generation - 1L;
+  }
+
+  // Claims the next half-open probe round for this process; fails when another process has claimed it first, or has
+  // closed the circuit meanwhile.
+  boolean claimProbeRound(final long expectedBlockedUntil, final long blockedUntil) {
+    return expectedBlockedUntil != 0L
+      && LONGS.compareAndSet(buffer, BLOCKED_UNTIL, expectedBlockedUntil, Math.max(1L, blockedUntil));
+  }
+
+  long incrementFailureCount() {
+    return (long) LONGS.getAndAdd(buffer, FAILURE_COUNT, 1L) + 1L;
+  }
+
+  long getFailureCount() {
+    return (long) LONGS.getVolatile(buffer, FAILURE_COUNT);
+  }
+
+  void resetFailureCount() {
+    LONGS.setVolatile(buffer, FAILURE_COUNT, 0L);
+  }
+}
@@ -1,75 +1,159 @@
 package htnl5.yarl.circuitbreaker;
 
-import java.time.Clock;
+import htnl5.yarl.utilities.Ticker;
+
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Duration;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
 
+// Recording holds the write lock; peeking reads the count optimistically and tries again if a recording overlapped it.
 final class SingleHealthMetrics implements IHealthMetrics {
   private final long samplingDuration;
-  private final Clock clock;
+  private final Ticker ticker;
 
-  private HealthCount current;
+  private final HealthCount current = new HealthCount(0L);
+  private final HealthCount snapshot = new HealthCount(0L);
+  private boolean started;
 
-  private final Lock lock = new ReentrantLock();
+  private final StampedLock lock = new StampedLock();
 
-  public SingleHealthMetrics(final Duration samplingDuration, final Clock clock) {
+  public SingleHealthMetrics(final Duration samplingDuration, final Ticker ticker) {
     this.samplingDuration = samplingDuration.toMillis();
-    this.clock = clock;
+    this.ticker = ticker;
   }
 
   @Override
   public void incrementSuccess() {
-    lock.lock();
+    final var stamp = lock.writeLock();
     try {
       actualiseCurrentMetric();
       current.setSuccesses(current.getSuccesses() + 1);
     } finally {
-      lock.unlock();
+      lock.unlockWrite(stamp);
     }
   }
 
   @Override
   public void incrementFailure() {
-    lock.lock();
+    final var stamp = lock.writeLock();
     try {
       actualiseCurrentMetric();
       current.setFailures(current.getFailures() + 1);
     } finally {
-      lock.unlock();
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void incrementSlowCall() {
+    final var stamp = lock.writeLock();
+    try {
+      actualiseCurrentMetric();
+      current.setSlowCalls(current.getSlowCalls() + 1);
+    } finally {
+      lock.unlockWrite(stamp);
     }
   }
 
   @Override
   public void reset() {
-    lock.lock();
+    final var stamp = lock.writeLock();
     try {
-      current = null;
+      started = false;
     } finally {
-      lock.unlock();
+      lock.unlockWrite(stamp);
     }
   }
 
   @Override
   public HealthCount getHealthCount() {
-    lock.lock();
+    final var stamp = lock.writeLock();
     try {
       actualiseCurrentMetric();
-      return current;
+      return snapshot.setSuccesses(current.getSuccesses())
+        .setFailures(current.getFailures())
+        .setSlowCalls(current.getSlowCalls())
+        .setStartedAt(current.getStartedAt());
     } finally {
-      lock.unlock();
+      lock.unlockWrite(stamp);
     }
   }
 
-  private void actualiseCurrentMetric() {
-    lock.lock();
+  @Override
+  public HealthCount peekHealthCount() {
+    final var stamp = lock.tryOptimisticRead();
+    final var healthCount = readCurrent();
+    if (lock.validate(stamp)) return healthCount;
+    final var readStamp = lock.readLock();
     try {
-      final var now = clock.millis();
-      if (current == null || now - current.getStartedAt() >= samplingDuration) {
-        current = new HealthCount(now);
+      return readCurrent();
+    } finally {
+      lock.unlockRead(readStamp);
+    }
+  }
+
+  private HealthCount readCurrent() {
+    final var now = ticker.millis();
+    final var startedAt = current.getStartedAt();
+    return started && now - startedAt < samplingDuration
+      ? new HealthCount(current.getSuccesses(), current.getFailures(), startedAt).setSlowCalls(current.getSlowCalls())
+      : new HealthCount(now);
+  }
+
+  @Override
+  public void writeTo(final DataOutput output) throws IOException {
+    final var stamp = lock.writeLock();
+    try {
+      final var now = ticker.millis();
+      if (!started || now - current.getStartedAt() >= samplingDuration) {
+        output.writeInt(0);
+        return;
+      }
+      output.writeInt(1);
+      output.writeLong(now - current.getStartedAt());
+      output.writeInt(current.getSuccesses());
+      output.writeInt(current.getFailures());
+      output.writeInt(current.getSlowCalls());
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  // Live windows written by metrics with several windows are merged into one, started when the oldest of them was.
+  @Override
+  public void restore(final List<SavedWindow> windows, final long elapsedMillis) {
+    final var stamp = lock.writeLock();
+    try {
+      started = false;
+      final var now = ticker.millis();
+      for (final var window : windows) {
+        final var age = window.age() + elapsedMillis;
+        final var successes = window.successes();
+        final var failures = window.failures();
+        final var slowCalls = window.slowCalls();
+        if (age < 0L || age >= samplingDuration) continue;
+        final var startedAt = now - age;
+        if (!started) {
+          current.setSuccesses(0).setFailures(0).setSlowCalls(0).setStartedAt(startedAt);
+          started = true;
+        }
+        current.setSuccesses(current.getSuccesses() + successes)
+          .setFailures(current.getFailures() + failures)
+          .setSlowCalls(current.getSlowCalls() + slowCalls)
+          .setStartedAt(Math.min(current.getStartedAt(), startedAt));
       }
     } finally {
-      lock.unlock();
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private void actualiseCurrentMetric() {
+    final var now = ticker.millis();
+    if (!started || now - current.getStartedAt() >= samplingDuration) {
+      current.setSuccesses(0).setFailures(0).setSlowCalls(0).setStartedAt(now);
+      started = true;
     }
   }
 }
@@ -0,0 +1,100 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.Context;
+import htnl5.yarl.DelegateResult;
+import htnl5.yarl.EventListener;
+import htnl5.yarl.utilities.Ticker;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+// Breaks on the failure rate of the last windowSize calls rather than of the calls within a sampling duration.
+class SlidingWindowCircuitBreakerController<R> extends CircuitBreakerStateController<R> {
+  private final OutcomeRing outcomes;
+  private final double failureThreshold;
+  private final int minimumThroughput;
+
+  SlidingWindowCircuitBreakerController(final double failureThreshold, final int windowSize,
+                                        final int minimumThroughput, final Duration durationOfBreak,
+                                        final Clock clock, final Ticker ticker,
+                                        final EventListener<BreakEvent<? extends R>> onBreak,
+                                        final Consumer<Context> onReset, final Runnable onHalfOpen,
+                                        final boolean stacklessRejections, final int halfOpenProbes,
+                                        final double halfOpenSuccessRatio, final Duration rampUpDuration,
+                                        final BreakDurationProvider breakDurationProvider,
+                                        final Duration breakCountResetAfter) {
+    super(durationOfBreak, clock, ticker, onBreak, onReset, onHalfOpen, stacklessRejections, halfOpenProbes,
+      halfOpenSuccessRatio, rampUpDuration, breakDurationProvider, breakCountResetAfter, null);
+    outcomes = new OutcomeRing(windowSize);
+    this.failureThreshold = failureThreshold;
+    this.minimumThroughput = minimumThroughput;
+  }
+
+  @Override
+  protected void resetSpecific() {
+    lock.lock();
+    try {
+      outcomes.reset();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  protected HealthCount peekHealthCount() {
+    final var counts = outcomes.peekCounts();
+    final var failures = OutcomeRing.failuresOf(counts);
+    return new HealthCount(OutcomeRing.sizeOf(counts) - failures, failures, NO_WINDOW);
+  }
+
+  @Override
+  protected void writeSpecific(final DataOutput output) throws IOException {
+    outcomes.writeTo(output);
+  }
+
+  @Override
+  protected Runnable readSpecific(final DataInput input, final long elapsedMillis) throws IOException {
+    final var saved = outcomes.readSaved(input);
+    return () -> outcomes.restore(saved);
+  }
+
+  @Override
+  public void onActionSuccess(final R result, final Context context, final boolean slow) {
+    lock.lock();
+    try {
+      switch (state) {
+        case CLOSED, OPEN, ISOLATED -> {
+        }
+        case HALF_OPEN -> onHalfOpenSuccess(context);
+      }
+      outcomes.record(false);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void onActionFailure(final DelegateResult<R> outcome, final Context context, final boolean slow) {
+    lock.lock();
+    try {
+      lastOutcome = outcome;
+      switch (state) {
+        case CLOSED -> {
+          outcomes.record(true);
+          final var throughput = outcomes.getSize();
+          if (throughput >= minimumThroughput && ((double) outcomes.getFailures()) / throughput >= failureThreshold) {
+            break_(context);
+          }
+        }
+        case OPEN, ISOLATED -> outcomes.record(true);
+        case HALF_OPEN -> onHalfOpenFailure(context);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+}
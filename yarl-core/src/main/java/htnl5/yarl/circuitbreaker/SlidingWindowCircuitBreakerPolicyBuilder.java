@@ -0,0 +1,67 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.IBuildable;
+
+import java.time.Duration;
+import java.util.Objects;
+
+public final class SlidingWindowCircuitBreakerPolicyBuilder<R>
+  extends CircuitBreakerPolicyBuilderBase<R, SlidingWindowCircuitBreakerPolicyBuilder<R>>
+  implements IBuildable<CircuitBreakerPolicy<R, SlidingWindowCircuitBreakerPolicyBuilder<R>>> {
+  private final double failureThreshold;
+
+  private final int windowSize;
+
+  private final int minimumThroughput;
+
+  private final Duration durationOfBreak;
+
+  public SlidingWindowCircuitBreakerPolicyBuilder(final double failureThreshold, final int windowSize,
+                                                  final int minimumThroughput, final Duration durationOfBreak) {
+    Objects.requireNonNull(durationOfBreak, "durationOfBreak must not be null.");
+    if (failureThreshold <= 0d) throw new IllegalArgumentException("failureThreshold must be greater than zero.");
+    if (failureThreshold > 1d)
+      throw new IllegalArgumentException("failureThreshold must me less than or equal to one.");
+    if (windowSize <= 0) throw new IllegalArgumentException("windowSize must be greater than zero.");
+    if (minimumThroughput <= 0) throw new IllegalArgumentException("minimumThroughput must be greater than zero.");
+    if (minimumThroughput > windowSize)
+      throw new IllegalArgumentException("minimumThroughput must be less than or equal to windowSize.");
+    if (durationOfBreak.isNegative())
+      throw new IllegalArgumentException("durationOfBreak must be greater than or equal to zero.");
+    this.failureThreshold = failureThreshold;
+    this.windowSize = windowSize;
+    this.minimumThroughput = minimumThroughput;
+    this.durationOfBreak = durationOfBreak;
+  }
+
+  double getFailureThreshold() {
+    return failureThreshold;
+  }
+
+  int getWindowSize() {
+    return windowSize;
+  }
+
+  int getMinimumThroughput() {
+    return minimumThroughput;
+  }
+
+  Duration getDurationOfBreak() {
+    return durationOfBreak;
+  }
+
+  @Override
+  public CircuitBreakerPolicy<R, SlidingWindowCircuitBreakerPolicyBuilder<R>> build() {
+    final var events = createEventPublisher();
+    final var controller = new SlidingWindowCircuitBreakerController<R>(failureThreshold, windowSize,
+      minimumThroughput, durationOfBreak, getClock(), getTicker(), events.onBreak(), events.onReset(),
+      events.onHalfOpen(), isStacklessRejections(), getHalfOpenProbes(), getHalfOpenSuccessRatio(),
+      getRampUpDuration(), getBreakDurationProvider(), getBreakCountResetAfter());
+    return new CircuitBreakerPolicy<>(this, controller, events);
+  }
+
+  @Override
+  public SlidingWindowCircuitBreakerPolicyBuilder<R> self() {
+    return this;
+  }
+}
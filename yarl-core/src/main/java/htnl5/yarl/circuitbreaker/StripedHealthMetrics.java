@@ -0,0 +1,145 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.utilities.Ticker;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Windows are aligned to slots of samplingDuration / numberOfWindows and their counts are striped across LongAdder
+// cells, so concurrent callers rarely write the same cache line. Recording takes no lock; the counts are only summed
+// when getHealthCount is called, which the controller does on failures.
+final class StripedHealthMetrics implements IHealthMetrics {
+  private final long windowDuration;
+  private final Ticker ticker;
+  private final AtomicReferenceArray<Window> windows;
+
+  public StripedHealthMetrics(final Duration samplingDuration, final Ticker ticker, final int numberOfWindows) {
+    this.windowDuration = Math.max(1L, samplingDuration.toMillis() / numberOfWindows);
+    this.ticker = ticker;
+    windows = new AtomicReferenceArray<>(numberOfWindows);
+  }
+
+  @Override
+  public void incrementSuccess() {
+    currentWindow().successes.increment();
+  }
+
+  @Override
+  public void incrementFailure() {
+    currentWindow().failures.increment();
+  }
+
+  @Override
+  public void incrementSlowCall() {
+    currentWindow().slowCalls.increment();
+  }
+
+  @Override
+  public void reset() {
+    for (var i = 0; i < windows.length(); i++) {
+      windows.set(i, null);
+    }
+  }
+
+  @Override
+  public HealthCount getHealthCount() {
+    final var slot = Math.floorDiv(ticker.millis(), windowDuration);
+    var successes = 0L;
+    var failures = 0L;
+    var slowCalls = 0L;
+    var oldestSlot = slot;
+    for (var i = 0; i < windows.length(); i++) {
+      final var window = windows.get(i);
+      if (window == null || window.slot <= slot - windows.length() || window.slot > slot) continue;
+      successes += window.successes.sum();
+      failures += window.failures.sum();
+      slowCalls += window.slowCalls.sum();
+      oldestSlot = Math.min(oldestSlot, window.slot);
+    }
+    return new HealthCount((int) Math.min(successes, Integer.MAX_VALUE), (int) Math.min(failures, Integer.MAX_VALUE),
+      oldestSlot * windowDuration)
+      .setSlowCalls((int) Math.min(slowCalls, Integer.MAX_VALUE));
+  }
+
+  @Override
+  public HealthCount peekHealthCount() {
+    return getHealthCount();
+  }
+
+  // Counts recorded while the windows are being written may or may not be included.
+  @Override
+  public void writeTo(final DataOutput output) throws IOException {
+    final var now = ticker.millis();
+    final var slot = Math.floorDiv(now, windowDuration);
+    final var live = new Window[windows.length()];
+    var count = 0;
+    for (var i = 0; i < windows.length(); i++) {
+      final var window = windows.get(i);
+      if (window == null || window.slot <= slot - windows.length() || window.slot > slot) continue;
+      live[count++] = window;
+    }
+    Arrays.sort(live, 0, count, Comparator.comparingLong(window -> window.slot));
+    output.writeInt(count);
+    for (var i = 0; i < count; i++) {
+      output.writeLong(now - live[i].slot * windowDuration);
+      output.writeInt((int) Math.min(live[i].successes.sum(), Integer.MAX_VALUE));
+      output.writeInt((int) Math.min(live[i].failures.sum(), Integer.MAX_VALUE));
+      output.writeInt((int) Math.min(live[i].slowCalls.sum(), Integer.MAX_VALUE));
+    }
+  }
+
+  @Override
+  public void restore(final List<SavedWindow> saved, final long elapsedMillis) {
+    reset();
+    final var now = ticker.millis();
+    final var slot = Math.floorDiv(now, windowDuration);
+    for (final var savedWindow : saved) {
+      final var age = savedWindow.age() + elapsedMillis;
+      final var successes = savedWindow.successes();
+      final var failures = savedWindow.failures();
+      final var slowCalls = savedWindow.slowCalls();
+      if (age < 0L) continue;
+      final var windowSlot = Math.floorDiv(now - age, windowDuration);
+      if (windowSlot <= slot - windows.length()) continue;
+      final var index = Math.floorMod(windowSlot, windows.length());
+      var window = windows.get(index);
+      if (window == null || window.slot < windowSlot) {
+        window = new Window(windowSlot);
+        windows.set(index, window);
+      } else if (window.slot > windowSlot) {
+        continue;
+      }
+      window.successes.add(successes);
+      window.failures.add(failures);
+      window.slowCalls.add(slowCalls);
+    }
+  }
+
+  private Window currentWindow() {
+    final var slot = Math.floorDiv(ticker.millis(), windowDuration);
+    final var index = Math.floorMod(slot, windows.length());
+    while (true) {
+      final var window = windows.get(index);
+      if (window != null && window.slot >= slot) return window;
+      final var next = new Window(slot);
+      if (windows.compareAndSet(index, window, next)) return next;
+    }
+  }
+
+  private static final class Window {
+    private final long slot;
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+
+    private Window(final long slot) {
+      this.slot = slot;
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package htnl5.yarl.partition;
+
+import htnl5.yarl.Context;
+import htnl5.yarl.ISyncPolicy;
+import htnl5.yarl.Policy;
+import htnl5.yarl.functions.ThrowingFunction;
+
+import java.time.Clock;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Runs each call through a policy of its own partition, created on first use from the policy factory. Existing
+// partitions are found without locking. When a new partition takes the map over maxPartitions, idle partitions are
+// evicted first and then the least recently used, down to nine tenths of the bound. Calls also sweep out idle
+// partitions every quarter of the idle timeout, so a map that never reaches its bound does not keep them forever.
+public final class PartitionedPolicy<R, P extends ISyncPolicy<R>>
+  extends Policy<PartitionedPolicyBuilder<R, P>>
+  implements ISyncPolicy<R> {
+  private final Function<String, ? extends P> policyFactory;
+  private final Function<Context, String> partitionKey;
+  private final int maxPartitions;
+  private final long idleTimeout;
+  private final long sweepInterval;
+  private final Clock clock;
+
+  private final Map<String, Partition<P>> partitions = new ConcurrentHashMap<>();
+  private final Lock evictionLock = new ReentrantLock();
+  private volatile long nextSweep;
+
+  PartitionedPolicy(final PartitionedPolicyBuilder<R, P> policyBuilder) {
+    super(policyBuilder);
+    policyFactory = policyBuilder.getPolicyFactory();
+    partitionKey = policyBuilder.getPartitionKey();
+    maxPartitions = policyBuilder.getMaxPartitions();
+    idleTimeout = policyBuilder.getIdleTimeout().toMillis();
+    sweepInterval = Math.max(1L, idleTimeout / 4);
+    clock = policyBuilder.getClock();
+    nextSweep = clock.millis() + sweepInterval;
+  }
+
+  public static <R, P extends ISyncPolicy<R>> PartitionedPolicyBuilder<R, P> builder(
+    final Function<String, ? extends P> policyFactory) {
+    return new PartitionedPolicyBuilder<>(policyFactory);
+  }
+
+  public Optional<P> getPartition(final String key) {
+    Objects.requireNonNull(key, "key must not be null.");
+    final var partition = partitions.get(key);
+    return partition == null ? Optional.empty() : Optional.of(partition.policy);
+  }
+
+  public int getPartitionCount() {
+    return partitions.size();
+  }
+
+  public void evictIdlePartitions() {
+    evictionLock.lock();
+    try {
+      evictIdle(clock.millis());
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public R implementation(final Context context, final ThrowingFunction<Context, ? extends R> action)
+    throws Throwable {
+    return partitionFor(context).execute(context, action);
+  }
+
+  private P partitionFor(final Context context) {
+    final var key = Objects.requireNonNullElse(partitionKey.apply(context),
+      PartitionedPolicyBuilder.DEFAULT_PARTITION_KEY);
+    final var now = clock.millis();
+    var partition = partitions.get(key);
+    if (partition == null) {
+      partition = partitions.computeIfAbsent(key, k -> new Partition<>(policyFactory.apply(k), now));
+      partition.touch(now);
+      if (partitions.size() > maxPartitions) evict(now);
+    } else {
+      partition.touch(now);
+    }
+    // After the touch, so the partition about to run is never the one swept out.
+    if (now >= nextSweep) sweepIdle(now);
+    return partition.policy;
+  }
+
+  // Like evict, skipped when another thread already holds the lock.
+  private void sweepIdle(final long now) {
+    if (!evictionLock.tryLock()) return;
+    try {
+      if (now >= nextSweep) evictIdle(now);
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  // One thread evicts at a time; the others carry on and may briefly see the map over its bound.
+  private void evict(final long now) {
+    if (!evictionLock.tryLock()) return;
+    try {
+      evictIdle(now);
+      if (partitions.size() <= maxPartitions) return;
+      final var excess = partitions.size() - (maxPartitions - maxPartitions / 10);
+      // lastUsed keeps moving while we sort, so sort a snapshot of it.
+      partitions.entrySet().stream()
+        .map(e -> new Candidate<>(e.getKey(), e.getValue(), e.getValue().lastUsed))
+        .sorted(Comparator.comparingLong(Candidate::lastUsed))
+        .limit(excess)
+        .toList()
+        .forEach(c -> partitions.remove(c.key(), c.partition()));
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void evictIdle(final long now) {
+    nextSweep = now + sweepInterval;
+    partitions.values().removeIf(partition -> now - partition.lastUsed >= idleTimeout);
+  }
+
+  private record Candidate<P>(String key, Partition<P> partition, long lastUsed) {
+  }
+
+  private static final class Partition<P> {
+    private final P policy;
+    private volatile long lastUsed;
+
+    private Partition(final P policy, final long lastUsed) {
+      this.policy = policy;
+      this.lastUsed = lastUsed;
+    }
+
+    // Skips the write when the time has not moved on, so hot partitions do not bounce their cache line.
+    private void touch(final long now) {
+      if (lastUsed != now) lastUsed = now;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package htnl5.yarl.partition;
+
+import htnl5.yarl.Context;
+import htnl5.yarl.IBuildable;
+import htnl5.yarl.ISyncPolicy;
+import htnl5.yarl.PolicyBuilder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+
+public final class PartitionedPolicyBuilder<R, P extends ISyncPolicy<R>>
+  extends PolicyBuilder<PartitionedPolicyBuilder<R, P>>
+  implements IBuildable<PartitionedPolicy<R, P>> {
+  static final String DEFAULT_PARTITION_KEY = "";
+
+  private final Function<String, ? extends P> policyFactory;
+  private Function<Context, String> partitionKey = ctx -> ctx.getOperationKey().orElse(DEFAULT_PARTITION_KEY);
+  private int maxPartitions = 10_000;
+  private Duration idleTimeout = Duration.ofMinutes(10);
+  private Clock clock = Clock.systemUTC();
+
+  PartitionedPolicyBuilder(final Function<String, ? extends P> policyFactory) {
+    Objects.requireNonNull(policyFactory, "policyFactory must not be null.");
+    this.policyFactory = policyFactory;
+  }
+
+  Function<String, ? extends P> getPolicyFactory() {
+    return policyFactory;
+  }
+
+  Function<Context, String> getPartitionKey() {
+    return partitionKey;
+  }
+
+  // Calls whose key function returns null share the default partition.
+  public PartitionedPolicyBuilder<R, P> partitionKey(final Function<Context, String> partitionKey) {
+    Objects.requireNonNull(partitionKey, "partitionKey must not be null.");
+    this.partitionKey = partitionKey;
+    return self();
+  }
+
+  public PartitionedPolicyBuilder<R, P> partitionByContextEntry(final String entryKey) {
+    Objects.requireNonNull(entryKey, "entryKey must not be null.");
+    return partitionKey(ctx -> {
+      final var value = ctx.get(entryKey);
+      return value == null ? null : value.toString();
+    });
+  }
+
+  int getMaxPartitions() {
+    return maxPartitions;
+  }
+
+  public PartitionedPolicyBuilder<R, P> maxPartitions(final int maxPartitions) {
+    if (maxPartitions <= 0) throw new IllegalArgumentException("maxPartitions must be greater than zero.");
+    this.maxPartitions = maxPartitions;
+    return self();
+  }
+
+  Duration getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  public PartitionedPolicyBuilder<R, P> idleTimeout(final Duration idleTimeout) {
+    Objects.requireNonNull(idleTimeout, "idleTimeout must not be null.");
+    if (idleTimeout.isNegative() || idleTimeout.isZero())
+      throw new IllegalArgumentException("idleTimeout must be greater than zero.");
+    this.idleTimeout = idleTimeout;
+    return self();
+  }
+
+  Clock getClock() {
+    return clock;
+  }
+
+  PartitionedPolicyBuilder<R, P> clock(final Clock clock) {
+    Objects.requireNonNull(clock, "clock must not be null.");
+    this.clock = clock;
+    return self();
+  }
+
+  @Override
+  public PartitionedPolicy<R, P> build() {
+    return new PartitionedPolicy<>(this);
+  }
+
+  @Override
+  public PartitionedPolicyBuilder<R, P> self() {
+    return this;
+  }
+}
@@ -16,7 +16,9 @@ public final class AsyncRetryPolicy<R>
   private final AsyncEventListener<RetryEvent<? extends R>> onRetry;
   private final int maxRetryCount;
   private final SleepDurationProvider<R> sleepDurationProvider;
-  private final SleepExecutorProvider sleepExecutorProvider;
+  private final Backoff backoff;
+  private final RetryBudget retryBudget;
+  private final SleepScheduler sleepScheduler;
 
   AsyncRetryPolicy(final AsyncRetryPolicyBuilder<R> policyBuilder) {
     super(policyBuilder);
@@ -26,7 +28,9 @@ public final class AsyncRetryPolicy<R>
     onRetry = policyBuilder.getOnRetry();
     maxRetryCount = policyBuilder.getMaxRetryCount();
     sleepDurationProvider = policyBuilder.getSleepDurationProvider();
-    sleepExecutorProvider = policyBuilder.getSleepExecutorProvider();
+    backoff = policyBuilder.getBackoff();
+    retryBudget = policyBuilder.getRetryBudget();
+    sleepScheduler = policyBuilder.getSleepScheduler();
   }
 
   public static <R> AsyncRetryPolicyBuilder<R> builder() {
@@ -52,6 +56,6 @@ public final class AsyncRetryPolicy<R>
   public CompletableFuture<R> implementation(final Context context, final Executor executor,
                                              final Function<Context, ? extends CompletionStage<R>> action) {
     return RetryEngine.implementation(action, context, executor, exceptionPredicates, resultPredicates, onRetry,
-      maxRetryCount, sleepDurationProvider, sleepExecutorProvider);
+      maxRetryCount, sleepDurationProvider, backoff, retryBudget, sleepScheduler);
   }
 }
@@ -10,9 +10,9 @@ public final class AsyncRetryPolicyBuilder<R>
   extends RetryPolicyBuilderBase<R, AsyncRetryPolicyBuilder<R>>
   implements IAsyncPolicyBuilder<AsyncRetryPolicyBuilder<R>>, IBuildable<AsyncRetryPolicy<R>> {
   private Executor executor = IAsyncPolicy.DEFAULT_EXECUTOR;
-  private AsyncEventListener<RetryEvent<? extends R>> onRetry = event -> CompletableFuture.completedFuture(null);
-  private SleepExecutorProvider sleepExecutorProvider = new SleepExecutorProvider() {
-  };
+  // Left null when no listener is set, so that retries need not build a RetryEvent or go through the executor.
+  private AsyncEventListener<RetryEvent<? extends R>> onRetry;
+  private SleepScheduler sleepScheduler = SleepScheduler.shared();
 
   @Override
   public Executor getExecutor() {
@@ -30,6 +30,7 @@ public final class AsyncRetryPolicyBuilder<R>
     return onRetry;
   }
 
+  // Also called, with budgetExhausted set, for a retry that the retry budget turned down and that never happens.
   public AsyncRetryPolicyBuilder<R> onRetryAsync(final AsyncEventListener<RetryEvent<? extends R>> onRetry) {
     Objects.requireNonNull(onRetry, "onRetryAsync must not be null.");
     this.onRetry = onRetry;
@@ -44,13 +45,13 @@ public final class AsyncRetryPolicyBuilder<R>
     });
   }
 
-  SleepExecutorProvider getSleepExecutorProvider() {
-    return sleepExecutorProvider;
+  SleepScheduler getSleepScheduler() {
+    return sleepScheduler;
   }
 
-  AsyncRetryPolicyBuilder<R> sleepExecutorProvider(final SleepExecutorProvider sleepExecutorProvider) {
-    Objects.requireNonNull(sleepExecutorProvider, "sleepExecutorProvider must not be null.");
-    this.sleepExecutorProvider = sleepExecutorProvider;
+  public AsyncRetryPolicyBuilder<R> sleepScheduler(final SleepScheduler sleepScheduler) {
+    Objects.requireNonNull(sleepScheduler, "sleepScheduler must not be null.");
+    this.sleepScheduler = sleepScheduler;
     return this;
   }
 
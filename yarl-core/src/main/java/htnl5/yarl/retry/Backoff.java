@@ -0,0 +1,61 @@
+package htnl5.yarl.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Works out the sleep before a retry from the retry's number and the sleep before the one prior, so that a policy needs
+// no state of its own per execution and nothing is allocated. Delays are in nanoseconds and never negative; STOP ends
+// the retries early.
+@FunctionalInterface
+interface Backoff {
+  long STOP = -1L;
+
+  long delayNanos(final int tryCount, final long previousDelayNanos);
+
+  static Backoff constant(final long delayNanos) {
+    return (tryCount, previousDelayNanos) -> delayNanos;
+  }
+
+  static Backoff linear(final long initialDelayNanos, final long incrementNanos, final long maxDelayNanos) {
+    return (tryCount, previousDelayNanos) -> {
+      final var delay = initialDelayNanos + (double) incrementNanos * (tryCount - 1);
+      return delay >= maxDelayNanos ? maxDelayNanos : (long) delay;
+    };
+  }
+
+  static Backoff exponential(final long initialDelayNanos, final double factor, final long maxDelayNanos) {
+    return (tryCount, previousDelayNanos) -> exponentialDelay(initialDelayNanos, factor, maxDelayNanos, tryCount);
+  }
+
+  // Anywhere between zero and the exponential delay, so that clients that failed together do not retry together.
+  static Backoff exponentialWithFullJitter(final long initialDelayNanos, final double factor,
+                                           final long maxDelayNanos) {
+    return (tryCount, previousDelayNanos) -> {
+      final var delay = exponentialDelay(initialDelayNanos, factor, maxDelayNanos, tryCount);
+      return delay == Long.MAX_VALUE
+        ? ThreadLocalRandom.current().nextLong(delay)
+        : ThreadLocalRandom.current().nextLong(delay + 1);
+    };
+  }
+
+  // Anywhere between the initial delay and three times the previous one, so that delays grow without moving in step.
+  // The first retry counts the initial delay as the previous one, so it is jittered like the rest.
+  static Backoff decorrelatedJitter(final long initialDelayNanos, final long maxDelayNanos) {
+    return (tryCount, previousDelayNanos) -> {
+      final var previous = previousDelayNanos == 0L ? initialDelayNanos : previousDelayNanos;
+      final var bound = previous > (maxDelayNanos - 1) / 3
+        ? maxDelayNanos
+        : Math.max(initialDelayNanos, previous * 3);
+      if (bound <= initialDelayNanos) return initialDelayNanos;
+      final var delay = bound == Long.MAX_VALUE
+        ? ThreadLocalRandom.current().nextLong(initialDelayNanos, bound)
+        : ThreadLocalRandom.current().nextLong(initialDelayNanos, bound + 1);
+      return Math.min(delay, maxDelayNanos);
+    };
+  }
+
+  private static long exponentialDelay(final long initialDelayNanos, final double factor, final long maxDelayNanos,
+                                       final int tryCount) {
+    final var delay = initialDelayNanos * Math.pow(factor, tryCount - 1);
+    return delay >= maxDelayNanos ? maxDelayNanos : (long) delay;
+  }
+}
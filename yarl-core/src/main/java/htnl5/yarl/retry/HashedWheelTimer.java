@@ -0,0 +1,231 @@
+package htnl5.yarl.retry;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+// Sleeps are dropped into one of wheelSize buckets by the tick they are due on, with a count of the turns of the wheel
+// still to go. Scheduling and cancelling only add to a queue, and a single daemon thread moves the queued sleeps into
+// the wheel and fires the bucket of each tick. Sleeps fire up to one tick late.
+//
+// The thread starts with the first sleep and runs until the timer is closed. Closing cuts every pending sleep short and
+// runs its task, so an async retry waiting on the timer goes on to its next attempt instead of hanging; the shared
+// timer lives as long as the JVM and ignores close.
+public final class HashedWheelTimer implements SleepScheduler, AutoCloseable {
+  static final HashedWheelTimer SHARED = new HashedWheelTimer(Duration.ofMillis(10), 512);
+
+  // Bounds the time a tick spends taking in new sleeps when they are scheduled faster than the wheel turns.
+  private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+  private static final String CLOSED_MESSAGE = "The timer has been closed.";
+
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int mask;
+  private final long startNanos = System.nanoTime();
+  private final Queue<Sleep> scheduled = new ConcurrentLinkedQueue<>();
+  private final Queue<Sleep> cancelled = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final Thread worker;
+  private volatile boolean closed;
+
+  public HashedWheelTimer(final Duration tickDuration, final int wheelSize) {
+    Objects.requireNonNull(tickDuration, "tickDuration must not be null.");
+    if (tickDuration.isNegative() || tickDuration.isZero())
+      throw new IllegalArgumentException("tickDuration must be greater than zero.");
+    if (wheelSize <= 0) throw new IllegalArgumentException("wheelSize must be greater than zero.");
+    if (wheelSize > 1 << 30) throw new IllegalArgumentException("wheelSize must be at most 1073741824.");
+    tickNanos = tickDuration.toNanos();
+    // Rounded up to a power of two so that a tick maps to its bucket with a mask.
+    wheel = new Bucket[wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1];
+    for (var i = 0; i < wheel.length; i++) {
+      wheel[i] = new Bucket();
+    }
+    mask = wheel.length - 1;
+    worker = new Thread(this::work, "yarl-hashed-wheel-timer");
+    worker.setDaemon(true);
+  }
+
+  @Override
+  public ScheduledSleep schedule(final Duration duration, final Runnable task) {
+    Objects.requireNonNull(duration, "duration must not be null.");
+    Objects.requireNonNull(task, "task must not be null.");
+    if (closed) throw new IllegalStateException(CLOSED_MESSAGE);
+    if (!started.get() && started.compareAndSet(false, true)) worker.start();
+    final var now = System.nanoTime() - startNanos;
+    final var deadline = now + Math.max(0L, saturatedNanos(duration));
+    final var sleep = new Sleep(task, deadline < now ? Long.MAX_VALUE : deadline);
+    scheduled.add(sleep);
+    // The worker may have stopped before taking in this sleep. If it did take it in, the task has already run.
+    if (closed && sleep.cancel()) throw new IllegalStateException(CLOSED_MESSAGE);
+    return sleep;
+  }
+
+  // Stops the thread, which runs every pending sleep's task on its way out, then waits for the thread to end.
+  @Override
+  public void close() {
+    if (this == SHARED || closed) return;
+    closed = true;
+    if (!started.get() && started.compareAndSet(false, true)) return;
+    LockSupport.unpark(worker);
+    if (Thread.currentThread() == worker) return;
+    try {
+      worker.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static long saturatedNanos(final Duration duration) {
+    try {
+      return duration.toNanos();
+    } catch (final ArithmeticException e) {
+      return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+  }
+
+  private void work() {
+    var tick = (System.nanoTime() - startNanos) / tickNanos;
+    while (!closed) {
+      final var now = waitForNextTick(tick);
+      if (closed) break;
+      removeCancelled();
+      transferScheduled(tick);
+      wheel[(int) (tick & mask)].expire(now);
+      tick++;
+    }
+    expirePending();
+  }
+
+  private long waitForNextTick(final long tick) {
+    final var tickEnd = tickNanos * (tick + 1);
+    while (true) {
+      final var now = System.nanoTime() - startNanos;
+      if (now >= tickEnd || closed) return now;
+      LockSupport.parkNanos(this, tickEnd - now);
+    }
+  }
+
+  private void expirePending() {
+    for (final var bucket : wheel) {
+      bucket.expireAll();
+    }
+    Sleep sleep;
+    while ((sleep = scheduled.poll()) != null) {
+      sleep.expire();
+    }
+    cancelled.clear();
+  }
+
+  private void removeCancelled() {
+    Sleep sleep;
+    while ((sleep = cancelled.poll()) != null) {
+      if (sleep.bucket != null) sleep.bucket.remove(sleep);
+    }
+  }
+
+  private void transferScheduled(final long tick) {
+    for (var i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+      final var sleep = scheduled.poll();
+      if (sleep == null) return;
+      if (sleep.state != Sleep.PENDING) continue;
+      final var dueTick = sleep.deadline / tickNanos;
+      sleep.remainingRounds = (dueTick - tick) / wheel.length;
+      wheel[(int) (Math.max(dueTick, tick) & mask)].add(sleep);
+    }
+  }
+
+  private final class Sleep implements ScheduledSleep {
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+    private static final AtomicIntegerFieldUpdater<Sleep> STATE =
+      AtomicIntegerFieldUpdater.newUpdater(Sleep.class, "state");
+
+    private final Runnable task;
+    private final long deadline;
+    private volatile int state = PENDING;
+    // Only touched by the worker.
+    private long remainingRounds;
+    private Bucket bucket;
+    private Sleep previous;
+    private Sleep next;
+
+    private Sleep(final Runnable task, final long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public boolean cancel() {
+      if (!STATE.compareAndSet(this, PENDING, CANCELLED)) return false;
+      cancelled.add(this);
+      return true;
+    }
+
+    private void expire() {
+      if (!STATE.compareAndSet(this, PENDING, EXPIRED)) return;
+      try {
+        task.run();
+      } catch (final Throwable e) {
+        // A failing task must not stop the timer for everyone else.
+      }
+    }
+  }
+
+  // A doubly linked list so that a cancelled sleep is unlinked in constant time.
+  private static final class Bucket {
+    private Sleep head;
+    private Sleep tail;
+
+    private void add(final Sleep sleep) {
+      sleep.bucket = this;
+      if (head == null) {
+        head = tail = sleep;
+      } else {
+        tail.next = sleep;
+        sleep.previous = tail;
+        tail = sleep;
+      }
+    }
+
+    private void remove(final Sleep sleep) {
+      if (sleep.previous != null) sleep.previous.next = sleep.next;
+      else head = sleep.next;
+      if (sleep.next != null) sleep.next.previous = sleep.previous;
+      else tail = sleep.previous;
+      sleep.previous = null;
+      sleep.next = null;
+      sleep.bucket = null;
+    }
+
+    private void expireAll() {
+      var sleep = head;
+      while (sleep != null) {
+        final var next = sleep.next;
+        remove(sleep);
+        sleep.expire();
+        sleep = next;
+      }
+    }
+
+    private void expire(final long now) {
+      var sleep = head;
+      while (sleep != null) {
+        final var next = sleep.next;
+        if (sleep.state != Sleep.PENDING) {
+          remove(sleep);
+        } else if (sleep.remainingRounds <= 0 && sleep.deadline <= now) {
+          remove(sleep);
+          sleep.expire();
+        } else {
+          sleep.remainingRounds--;
+        }
+        sleep = next;
+      }
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package htnl5.yarl.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+final class ManagedSleeper implements Sleeper {
+  static final ManagedSleeper PARKING = new ManagedSleeper(ParkingSleeper.INSTANCE);
+
+  private final Sleeper sleeper;
+
+  ManagedSleeper(final Sleeper sleeper) {
+    this.sleeper = sleeper;
+  }
+
+  @Override
+  public void sleep(final Duration duration) throws InterruptedException {
+    if (!(Thread.currentThread() instanceof ForkJoinWorkerThread)) {
+      sleeper.sleep(duration);
+      return;
+    }
+    ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+      private boolean slept;
+
+      @Override
+      public boolean block() throws InterruptedException {
+        sleeper.sleep(duration);
+        slept = true;
+        return true;
+      }
+
+      @Override
+      public boolean isReleasable() {
+        return slept;
+      }
+    });
+  }
+}
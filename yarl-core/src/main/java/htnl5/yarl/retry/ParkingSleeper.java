@@ -0,0 +1,24 @@
+package htnl5.yarl.retry;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+// parkNanos may return early, spuriously or on unpark, so it is called again until the deadline has passed.
+final class ParkingSleeper implements Sleeper {
+  static final ParkingSleeper INSTANCE = new ParkingSleeper();
+
+  private ParkingSleeper() {
+  }
+
+  @Override
+  public void sleep(final Duration duration) throws InterruptedException {
+    final var nanos = SleepDurationSequence.toDelayNanos(duration);
+    final var startedAt = System.nanoTime();
+    while (true) {
+      if (Thread.interrupted()) throw new InterruptedException();
+      final var remaining = nanos - (System.nanoTime() - startedAt);
+      if (remaining <= 0L) return;
+      LockSupport.parkNanos(this, remaining);
+    }
+  }
+}
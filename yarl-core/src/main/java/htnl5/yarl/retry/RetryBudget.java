@@ -0,0 +1,66 @@
+package htnl5.yarl.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Caps retries at retryRatio times the first attempts across every policy sharing the budget. Each first attempt
+// deposits retryRatio of a token, up to maxRetries tokens, and each retry withdraws a whole one. Once the tokens run
+// out, handled outcomes are returned without retrying until enough first attempts have been made again. Starts full so
+// that a burst of up to maxRetries can be retried straight away. A retryRatio of zero never refills the budget.
+public final class RetryBudget {
+  // Tokens are counted in thousandths so that fractional deposits need no floating point on the hot path.
+  private static final long SCALE = 1_000L;
+
+  private final long deposit;
+  private final long maxBalance;
+  private final AtomicLong balance;
+  private final LongAdder retriesAllowed = new LongAdder();
+  private final LongAdder retriesRejected = new LongAdder();
+
+  public RetryBudget(final double retryRatio, final int maxRetries) {
+    if (!(retryRatio >= 0d) || Double.isInfinite(retryRatio))
+      throw new IllegalArgumentException("retryRatio must be greater than or equal to zero.");
+    if (maxRetries <= 0) throw new IllegalArgumentException("maxRetries must be greater than zero.");
+    deposit = Math.round(retryRatio * SCALE);
+    if (deposit == 0L && retryRatio > 0d)
+      throw new IllegalArgumentException("retryRatio must be zero or at least 0.0005.");
+    maxBalance = maxRetries * SCALE;
+    balance = new AtomicLong(maxBalance);
+  }
+
+  // A full budget is only read, so that healthy traffic does not contend on the balance.
+  void recordAttempt() {
+    while (true) {
+      final var current = balance.get();
+      if (current >= maxBalance || deposit == 0L) return;
+      // Capped before adding, since a deposit of a very large ratio would overflow the balance.
+      if (balance.compareAndSet(current, current + Math.min(deposit, maxBalance - current))) return;
+    }
+  }
+
+  boolean tryAcquireRetry() {
+    while (true) {
+      final var current = balance.get();
+      if (current < SCALE) {
+        retriesRejected.increment();
+        return false;
+      }
+      if (balance.compareAndSet(current, current - SCALE)) {
+        retriesAllowed.increment();
+        return true;
+      }
+    }
+  }
+
+  public int getAvailableRetries() {
+    return (int) (balance.get() / SCALE);
+  }
+
+  public long getRetriesAllowed() {
+    return retriesAllowed.sum();
+  }
+
+  public long getRetriesRejected() {
+    return retriesRejected.sum();
+  }
+}
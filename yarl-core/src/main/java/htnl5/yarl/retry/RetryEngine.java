@@ -4,7 +4,9 @@ import htnl5.yarl.*;
 import htnl5.yarl.functions.ThrowingFunction;
 
 import java.time.Duration;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
@@ -16,27 +18,47 @@ final class RetryEngine {
   static <R> R implementation(final ThrowingFunction<Context, ? extends R> action, final Context context,
                               final ExceptionPredicates exceptionPredicates, final ResultPredicates<R> resultPredicates,
                               final EventListener<RetryEvent<? extends R>> onRetry, final int maxRetryCount,
-                              final SleepDurationProvider<? super R> sleepDurationProvider, final Sleeper sleeper)
+                              final SleepDurationProvider<? super R> sleepDurationProvider, final Backoff backoff,
+                              final RetryBudget retryBudget, final Sleeper sleeper)
     throws Throwable {
     var tryCount = 0;
+    var previousDelayNanos = 0L;
+    if (retryBudget != null) retryBudget.recordAttempt();
 
+    // Nothing but the action's own result is allocated unless the outcome is handled and will be retried.
     while (true) {
-      final var outcome = DelegateResult.runCatching(exceptionPredicates, () -> (R) action.apply(context));
-      final var shouldHandle = outcome.shouldHandle(resultPredicates, exceptionPredicates);
-      if (!shouldHandle) {
-        return outcome.getOrThrow();
+      R result = null;
+      Throwable exception = null;
+      try {
+        result = action.apply(context);
+      } catch (final Throwable e) {
+        exception = exceptionPredicates.firstMatchOrEmpty(e).orElse(e);
       }
 
-      final var canRetry = tryCount < maxRetryCount;
-      if (!canRetry) {
-        return outcome.getOrThrow();
+      final var shouldHandle = exception == null
+        ? resultPredicates.anyMatch(result)
+        : exceptionPredicates.firstMatchOrEmpty(exception).isPresent();
+      final var delayNanos = shouldHandle && tryCount < maxRetryCount
+        ? delayNanos(backoff, tryCount + 1, previousDelayNanos)
+        : Backoff.STOP;
+      if (delayNanos == Backoff.STOP) {
+        if (exception != null) throw exception;
+        return result;
+      }
+
+      final DelegateResult<R> outcome =
+        exception == null ? DelegateResult.success(result) : DelegateResult.failure(exception);
+      if (retryBudget != null && !retryBudget.tryAcquireRetry()) {
+        if (onRetry != null) onRetry.accept(new RetryEvent<>(outcome, Duration.ZERO, tryCount + 1, context, true));
+        if (exception != null) throw exception;
+        return result;
       }
 
       tryCount++;
+      previousDelayNanos = delayNanos;
 
-      final var sleepDuration =
-        sleepDurationProvider.apply(new SleepDurationEvent<>(tryCount, outcome, context));
-      onRetry.accept(new RetryEvent<>(outcome, sleepDuration, tryCount, context));
+      final var sleepDuration = sleepDuration(sleepDurationProvider, delayNanos, tryCount, outcome, context);
+      if (onRetry != null) onRetry.accept(new RetryEvent<>(outcome, sleepDuration, tryCount, context));
       if (!sleepDuration.isNegative() && !sleepDuration.isZero()) {
         sleeper.sleep(sleepDuration);
       }
@@ -50,59 +72,190 @@ final class RetryEngine {
                                                  final AsyncEventListener<RetryEvent<? extends R>> onRetry,
                                                  final int maxRetryCount,
                                                  final SleepDurationProvider<? super R> sleepDurationProvider,
-                                                 final SleepExecutorProvider sleepExecutorProvider) {
-    final var future = new CompletableFuture<R>();
-    run(future, action, context, executor, exceptionPredicates, resultPredicates, onRetry, maxRetryCount,
-      sleepDurationProvider, sleepExecutorProvider, 0)
-      .whenComplete((r, e) -> {
-        if (e != null) future.completeExceptionally(e);
-        future.complete(r);
-      });
-    return future;
+                                                 final Backoff backoff, final RetryBudget retryBudget,
+                                                 final SleepScheduler sleepScheduler) {
+    final var retry = new AsyncRetry<>(action, context, executor, exceptionPredicates, resultPredicates, onRetry,
+      maxRetryCount, sleepDurationProvider, backoff, retryBudget, sleepScheduler);
+    if (retryBudget != null) retryBudget.recordAttempt();
+    retry.run();
+    return retry.future;
+  }
+
+  // A null backoff means no sleep durations were configured, or that they come from a provider.
+  private static long delayNanos(final Backoff backoff, final int tryCount, final long previousDelayNanos) {
+    return backoff == null ? 0L : backoff.delayNanos(tryCount, previousDelayNanos);
   }
 
-  private static <R> CompletableFuture<R> run(final CompletableFuture<R> future,
-                                              final Function<Context, ? extends CompletionStage<R>> action,
-                                              final Context context, final Executor executor,
-                                              final ExceptionPredicates exceptionPredicates,
-                                              final ResultPredicates<R> resultPredicates,
-                                              final AsyncEventListener<RetryEvent<? extends R>> onRetry,
-                                              final int maxRetryCount,
-                                              final SleepDurationProvider<? super R> sleepDurationProvider,
-                                              final SleepExecutorProvider sleepExecutorProvider,
-                                              final int tryCount) {
-    return action.apply(context)
-      .exceptionallyComposeAsync(e ->
-        CompletableFuture.failedFuture(exceptionPredicates.firstMatchOrEmpty(e).orElse(e)), executor)
-      .applyToEitherAsync(future, Function.identity(), executor)
-      .handleAsync((r, e) -> {
-        final var outcome = DelegateResult.delegateResult(r, e);
-        final var shouldHandle = outcome.shouldHandle(resultPredicates, exceptionPredicates);
-        if (!shouldHandle) {
-          return outcome.toCompletableFuture();
+  private static <R> Duration sleepDuration(final SleepDurationProvider<? super R> sleepDurationProvider,
+                                            final long delayNanos, final int tryCount,
+                                            final DelegateResult<R> outcome, final Context context) {
+    if (sleepDurationProvider == null) return Duration.ofNanos(delayNanos);
+    return sleepDurationProvider.apply(new SleepDurationEvent<>(tryCount, outcome, context));
+  }
+
+  // Attempts run on the calling thread for as long as the action's stage is already complete and a retry needs
+  // neither a sleep nor a listener. Only sleeps, listeners and retries of stages completed later go to the executor.
+  private static final class AsyncRetry<R> {
+    private final CompletableFuture<R> future = new CompletableFuture<>();
+    private final Function<Context, ? extends CompletionStage<R>> action;
+    private final Context context;
+    private final Executor executor;
+    private final ExceptionPredicates exceptionPredicates;
+    private final ResultPredicates<R> resultPredicates;
+    private final AsyncEventListener<RetryEvent<? extends R>> onRetry;
+    private final int maxRetryCount;
+    private final SleepDurationProvider<? super R> sleepDurationProvider;
+    private final Backoff backoff;
+    private final RetryBudget retryBudget;
+    private final SleepScheduler sleepScheduler;
+    private int tryCount;
+    private long previousDelayNanos;
+
+    private AsyncRetry(final Function<Context, ? extends CompletionStage<R>> action, final Context context,
+                       final Executor executor, final ExceptionPredicates exceptionPredicates,
+                       final ResultPredicates<R> resultPredicates,
+                       final AsyncEventListener<RetryEvent<? extends R>> onRetry, final int maxRetryCount,
+                       final SleepDurationProvider<? super R> sleepDurationProvider, final Backoff backoff,
+                       final RetryBudget retryBudget, final SleepScheduler sleepScheduler) {
+      this.action = action;
+      this.context = context;
+      this.executor = executor;
+      this.exceptionPredicates = exceptionPredicates;
+      this.resultPredicates = resultPredicates;
+      this.onRetry = onRetry;
+      this.maxRetryCount = maxRetryCount;
+      this.sleepDurationProvider = sleepDurationProvider;
+      this.backoff = backoff;
+      this.retryBudget = retryBudget;
+      this.sleepScheduler = sleepScheduler;
+    }
+
+    private void run() {
+      // Stops as soon as the caller completes or cancels the returned future.
+      while (!future.isDone()) {
+        CompletionStage<R> stage;
+        try {
+          stage = action.apply(context);
+        } catch (final Throwable e) {
+          stage = CompletableFuture.failedFuture(e);
         }
 
-        final var canRetry = tryCount < maxRetryCount;
-        if (!canRetry) {
-          return outcome.toCompletableFuture();
+        if (!(stage instanceof CompletableFuture<R> completed) || !completed.isDone()) {
+          stage.whenComplete((r, e) -> {
+            if (onOutcome(r, e)) retryOnExecutor();
+          });
+          return;
         }
+        R result = null;
+        Throwable exception = null;
+        try {
+          result = completed.join();
+        } catch (final CompletionException | CancellationException e) {
+          exception = e;
+        }
+        if (!onOutcome(result, exception)) return;
+      }
+    }
 
-        final var newTryCount = tryCount + 1;
+    // Returns true when the next attempt can start straight away. Otherwise the future has been completed, or the
+    // next attempt has been handed to the listener and the sleep executor.
+    private boolean onOutcome(final R result, final Throwable throwable) {
+      try {
+        final var cause = throwable instanceof CompletionException && throwable.getCause() != null
+          ? throwable.getCause()
+          : throwable;
+        final var exception = cause == null ? null : exceptionPredicates.firstMatchOrEmpty(cause).orElse(cause);
+        final var shouldHandle = exception == null
+          ? resultPredicates.anyMatch(result)
+          : exceptionPredicates.firstMatchOrEmpty(exception).isPresent();
+        final var delayNanos = shouldHandle && tryCount < maxRetryCount
+          ? delayNanos(backoff, tryCount + 1, previousDelayNanos)
+          : Backoff.STOP;
+        if (delayNanos == Backoff.STOP) {
+          complete(result, exception);
+          return false;
+        }
+        return retry(result, exception, delayNanos);
+      } catch (final Throwable e) {
+        fail(e);
+      }
+      return false;
+    }
 
-        final var sleepDuration = sleepDurationProvider.apply(new SleepDurationEvent<>(newTryCount, outcome, context));
-        return onRetry.apply(new RetryEvent<>(outcome, sleepDuration, newTryCount, context))
-          .thenComposeAsync(v -> sleep(sleepDuration, executor, sleepExecutorProvider), executor)
-          .thenComposeAsync(v -> run(future, action, context, executor, exceptionPredicates, resultPredicates, onRetry,
-            maxRetryCount, sleepDurationProvider, sleepExecutorProvider, newTryCount), executor);
-      }, executor)
-      .thenComposeAsync(Function.identity(), executor)
-      .toCompletableFuture();
-  }
+    // Kept apart from onOutcome so that the path which completes the future stays small enough to inline.
+    private boolean retry(final R result, final Throwable exception, final long delayNanos) {
+      final DelegateResult<R> outcome =
+        exception == null ? DelegateResult.success(result) : DelegateResult.failure(exception);
+      if (retryBudget != null && !retryBudget.tryAcquireRetry()) {
+        if (onRetry == null) complete(result, exception);
+        else callOnRetry(new RetryEvent<>(outcome, Duration.ZERO, tryCount + 1, context, true),
+          () -> complete(result, exception));
+        return false;
+      }
+
+      tryCount++;
+      previousDelayNanos = delayNanos;
+
+      final var sleepDuration = sleepDuration(sleepDurationProvider, delayNanos, tryCount, outcome, context);
+      final var sleep = !sleepDuration.isNegative() && !sleepDuration.isZero();
+      if (onRetry == null) {
+        if (!sleep) return true;
+        sleepThenRun(sleepDuration);
+        return false;
+      }
+
+      callOnRetry(new RetryEvent<>(outcome, sleepDuration, tryCount, context), () -> {
+        if (sleep) sleepThenRun(sleepDuration);
+        else run();
+      });
+      return false;
+    }
+
+    // Calls the listener on the executor, then runs the continuation once the listener's future completes normally.
+    private void callOnRetry(final RetryEvent<R> event, final Runnable then) {
+      executor.execute(() -> {
+        try {
+          onRetry.apply(event).whenComplete((v, e) -> {
+            if (e != null) fail(e);
+            else then.run();
+          });
+        } catch (final Throwable e) {
+          fail(e);
+        }
+      });
+    }
 
-  private static CompletableFuture<Void> sleep(final Duration sleepDuration, final Executor executor,
-                                               final SleepExecutorProvider sleepExecutorProvider) {
-    final Executor sleepExecutor = sleepExecutorProvider.sleepExecutor(sleepDuration, executor);
-    return CompletableFuture.runAsync(() -> {
-    }, sleepExecutor);
+    private void complete(final R result, final Throwable exception) {
+      if (exception != null) fail(exception);
+      else future.complete(result);
+    }
+
+    // The scheduler only wakes the retry; the next attempt still runs on the executor. A sleep is given up as soon as
+    // the caller completes or cancels the future.
+    private void sleepThenRun(final Duration sleepDuration) {
+      try {
+        final var sleep = sleepScheduler.schedule(sleepDuration, this::retryOnExecutor);
+        future.whenComplete((r, e) -> sleep.cancel());
+      } catch (final Throwable e) {
+        fail(e);
+      }
+    }
+
+    // Wrapped the same as a failure passed down a chain of stages, which is what callers have always seen.
+    private void fail(final Throwable exception) {
+      future.completeExceptionally(exception instanceof CompletionException
+        ? exception
+        : new CompletionException(exception));
+    }
+
+    // A stage that completed later, or a sleep that has passed, is retried on the executor rather than on whichever
+    // thread completed it.
+    private void retryOnExecutor() {
+      try {
+        executor.execute(this::run);
+      } catch (final Throwable e) {
+        fail(e);
+      }
+    }
   }
 }
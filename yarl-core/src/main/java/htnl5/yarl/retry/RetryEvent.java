@@ -6,5 +6,12 @@ import htnl5.yarl.DelegateResult;
 import java.time.Duration;
 
 // producer
-public record RetryEvent<R>(DelegateResult<R> outcome, Duration sleepDuration, int tryCount, Context context) {
+// budgetExhausted is set when the retry budget turned the retry down; the outcome is then returned without retrying,
+// so listeners that count retries should skip these events.
+public record RetryEvent<R>(DelegateResult<R> outcome, Duration sleepDuration, int tryCount, Context context,
+                            boolean budgetExhausted) {
+  public RetryEvent(final DelegateResult<R> outcome, final Duration sleepDuration, final int tryCount,
+                    final Context context) {
+    this(outcome, sleepDuration, tryCount, context, false);
+  }
 }
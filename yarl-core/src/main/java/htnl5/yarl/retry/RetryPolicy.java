@@ -9,6 +9,8 @@ public final class RetryPolicy<R> extends Policy<RetryPolicyBuilder<R>> implemen
   private final EventListener<RetryEvent<? extends R>> onRetry;
   private final int maxRetryCount;
   private final SleepDurationProvider<R> sleepDurationProvider;
+  private final Backoff backoff;
+  private final RetryBudget retryBudget;
   private final Sleeper sleeper;
 
   RetryPolicy(final RetryPolicyBuilder<R> policyBuilder) {
@@ -18,6 +20,8 @@ public final class RetryPolicy<R> extends Policy<RetryPolicyBuilder<R>> implemen
     onRetry = policyBuilder.getOnRetry();
     maxRetryCount = policyBuilder.getMaxRetryCount();
     sleepDurationProvider = policyBuilder.getSleepDurationProvider();
+    backoff = policyBuilder.getBackoff();
+    retryBudget = policyBuilder.getRetryBudget();
     sleeper = policyBuilder.getSleeper();
   }
 
@@ -39,6 +43,6 @@ public final class RetryPolicy<R> extends Policy<RetryPolicyBuilder<R>> implemen
   public R implementation(final Context context, final ThrowingFunction<Context, ? extends R> action)
     throws Throwable {
     return RetryEngine.implementation(action, context, exceptionPredicates, resultPredicates, onRetry, maxRetryCount,
-      sleepDurationProvider, sleeper);
+      sleepDurationProvider, backoff, retryBudget, sleeper);
   }
 }
@@ -8,15 +8,15 @@ import java.util.Objects;
 public final class RetryPolicyBuilder<R>
   extends RetryPolicyBuilderBase<R, RetryPolicyBuilder<R>>
   implements IBuildable<RetryPolicy<R>> {
-  private EventListener<RetryEvent<? extends R>> onRetry = event -> {
-  };
-  private Sleeper sleeper = new Sleeper() {
-  };
+  // Left null when no listener is set, so that retries need not build a RetryEvent.
+  private EventListener<RetryEvent<? extends R>> onRetry;
+  private Sleeper sleeper = Sleeper.system();
 
   EventListener<RetryEvent<? extends R>> getOnRetry() {
     return onRetry;
   }
 
+  // Also called, with budgetExhausted set, for a retry that the retry budget turned down and that never happens.
   public RetryPolicyBuilder<R> onRetry(final EventListener<RetryEvent<? extends R>> onRetry) {
     Objects.requireNonNull(onRetry, "onRetry must not be null.");
     this.onRetry = onRetry;
@@ -27,7 +27,7 @@ public final class RetryPolicyBuilder<R>
     return sleeper;
   }
 
-  RetryPolicyBuilder<R> sleeper(final Sleeper sleeper) {
+  public RetryPolicyBuilder<R> sleeper(final Sleeper sleeper) {
     Objects.requireNonNull(sleeper, "sleeper must not be null.");
     this.sleeper = sleeper;
     return this;
@@ -7,8 +7,8 @@ import htnl5.yarl.ResultPredicates;
 
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Objects;
-import java.util.stream.StreamSupport;
 
 public abstract class RetryPolicyBuilderBase<R, B extends RetryPolicyBuilderBase<R, B>>
   extends PolicyBuilder<B>
@@ -16,7 +16,11 @@ public abstract class RetryPolicyBuilderBase<R, B extends RetryPolicyBuilderBase
   private final ResultPredicates<R> resultPredicates = ResultPredicates.none();
   private final ExceptionPredicates exceptionPredicates = ExceptionPredicates.none();
   private int maxRetryCount = 3;
-  private SleepDurationProvider<R> sleepDurationProvider = event -> Duration.ZERO;
+  // Both left null when no sleep durations are configured, so that retries need not build a SleepDurationEvent. At most
+  // one of them is set.
+  private SleepDurationProvider<R> sleepDurationProvider;
+  private Backoff backoff;
+  private RetryBudget retryBudget;
 
   @Override
   public ResultPredicates<R> getResultPredicates() {
@@ -42,34 +46,112 @@ public abstract class RetryPolicyBuilderBase<R, B extends RetryPolicyBuilderBase
     return maxRetryCount(Integer.MAX_VALUE);
   }
 
+  RetryBudget getRetryBudget() {
+    return retryBudget;
+  }
+
+  public B retryBudget(final RetryBudget retryBudget) {
+    Objects.requireNonNull(retryBudget, "retryBudget must not be null.");
+    this.retryBudget = retryBudget;
+    return self();
+  }
+
   SleepDurationProvider<R> getSleepDurationProvider() {
     return sleepDurationProvider;
   }
 
+  Backoff getBackoff() {
+    return backoff;
+  }
+
+  // A collection sets maxRetryCount to its size. Any other iterable is read lazily, as retries first need each
+  // duration, and may be endless; retries stop once it runs out.
   public B sleepDurations(final Iterable<Duration> sleepDurations) {
     Objects.requireNonNull(sleepDurations, "sleepDurations must not be null.");
-    maxRetryCount = Math.toIntExact(StreamSupport.stream(sleepDurations.spliterator(), false).count());
-    final var sleepDurationsIterator = sleepDurations.iterator();
-    sleepDurationProvider = event -> {
-      if (sleepDurationsIterator.hasNext()) return sleepDurationsIterator.next();
-      else return Duration.ZERO;
-    };
-    return self();
+    if (sleepDurations instanceof Collection<Duration> c) {
+      final var table = new SleepDurationTable(c);
+      maxRetryCount = c.size();
+      return backoff(table);
+    }
+    maxRetryCount = Integer.MAX_VALUE;
+    return backoff(new SleepDurationSequence(sleepDurations.iterator()));
   }
 
   public B sleepDurations(final Duration... sleepDurations) {
-    maxRetryCount = sleepDurations.length;
-    final var sleepDurationsIterator = Arrays.stream(sleepDurations).iterator();
-    sleepDurationProvider = event -> {
-      if (sleepDurationsIterator.hasNext()) return sleepDurationsIterator.next();
-      else return Duration.ZERO;
-    };
-    return self();
+    Objects.requireNonNull(sleepDurations, "sleepDurations must not be null.");
+    return sleepDurations(Arrays.asList(sleepDurations));
   }
 
   public B sleepDurationProvider(final SleepDurationProvider<? super R> sleepDurationProvider) {
     Objects.requireNonNull(sleepDurationProvider, "sleepDurationProvider must not be null.");
     this.sleepDurationProvider = sleepDurationProvider::apply;
+    backoff = null;
     return self();
   }
+
+  public B constantBackoff(final Duration delay) {
+    requireNotNegative(delay, "delay");
+    return backoff(Backoff.constant(SleepDurationSequence.toDelayNanos(delay)));
+  }
+
+  public B linearBackoff(final Duration initialDelay, final Duration increment, final Duration maxDelay) {
+    requireNotNegative(initialDelay, "initialDelay");
+    requireNotNegative(increment, "increment");
+    requireMaxDelay(maxDelay, initialDelay);
+    return backoff(Backoff.linear(SleepDurationSequence.toDelayNanos(initialDelay),
+      SleepDurationSequence.toDelayNanos(increment), SleepDurationSequence.toDelayNanos(maxDelay)));
+  }
+
+  public B exponentialBackoff(final Duration initialDelay, final double factor, final Duration maxDelay) {
+    requirePositive(initialDelay, "initialDelay");
+    requireFactor(factor);
+    requireMaxDelay(maxDelay, initialDelay);
+    return backoff(Backoff.exponential(SleepDurationSequence.toDelayNanos(initialDelay), factor,
+      SleepDurationSequence.toDelayNanos(maxDelay)));
+  }
+
+  // Full jitter: each delay is drawn from between zero and the exponential delay.
+  public B exponentialBackoffWithFullJitter(final Duration initialDelay, final double factor,
+                                            final Duration maxDelay) {
+    requirePositive(initialDelay, "initialDelay");
+    requireFactor(factor);
+    requireMaxDelay(maxDelay, initialDelay);
+    return backoff(Backoff.exponentialWithFullJitter(SleepDurationSequence.toDelayNanos(initialDelay), factor,
+      SleepDurationSequence.toDelayNanos(maxDelay)));
+  }
+
+  // Decorrelated jitter: each delay is drawn from between initialDelay and three times the previous delay.
+  public B decorrelatedJitterBackoff(final Duration initialDelay, final Duration maxDelay) {
+    requirePositive(initialDelay, "initialDelay");
+    requireMaxDelay(maxDelay, initialDelay);
+    return backoff(Backoff.decorrelatedJitter(SleepDurationSequence.toDelayNanos(initialDelay),
+      SleepDurationSequence.toDelayNanos(maxDelay)));
+  }
+
+  private B backoff(final Backoff backoff) {
+    this.backoff = backoff;
+    sleepDurationProvider = null;
+    return self();
+  }
+
+  private static void requireNotNegative(final Duration duration, final String name) {
+    Objects.requireNonNull(duration, name + " must not be null.");
+    if (duration.isNegative()) throw new IllegalArgumentException(name + " must be greater than or equal to zero.");
+  }
+
+  private static void requirePositive(final Duration duration, final String name) {
+    Objects.requireNonNull(duration, name + " must not be null.");
+    if (duration.isNegative() || duration.isZero())
+      throw new IllegalArgumentException(name + " must be greater than zero.");
+  }
+
+  private static void requireFactor(final double factor) {
+    if (!(factor >= 1d)) throw new IllegalArgumentException("factor must be greater than or equal to one.");
+  }
+
+  private static void requireMaxDelay(final Duration maxDelay, final Duration initialDelay) {
+    Objects.requireNonNull(maxDelay, "maxDelay must not be null.");
+    if (maxDelay.compareTo(initialDelay) < 0)
+      throw new IllegalArgumentException("maxDelay must be greater than or equal to initialDelay.");
+  }
 }
@@ -0,0 +1,48 @@
+package htnl5.yarl.retry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+
+// Takes sleep durations from a sequence that may be lazy or endless, one as each retry first needs it, and keeps them
+// so that every execution sees the same delay for the same retry. Retries stop once the sequence runs out.
+final class SleepDurationSequence implements Backoff {
+  private final Iterator<Duration> iterator;
+  // Written under the lock. A delay is in the table before count covers it, so reading it needs no lock.
+  private volatile long[] delays = new long[8];
+  private volatile int count;
+  private boolean exhausted;
+
+  SleepDurationSequence(final Iterator<Duration> iterator) {
+    this.iterator = iterator;
+  }
+
+  @Override
+  public long delayNanos(final int tryCount, final long previousDelayNanos) {
+    final var index = tryCount - 1;
+    return index < count ? delays[index] : take(index);
+  }
+
+  private synchronized long take(final int index) {
+    while (count <= index) {
+      if (exhausted || !iterator.hasNext()) {
+        exhausted = true;
+        return STOP;
+      }
+      if (count == delays.length) delays = Arrays.copyOf(delays, delays.length * 2);
+      delays[count] = toDelayNanos(iterator.next());
+      count++;
+    }
+    return delays[index];
+  }
+
+  // Negative durations never slept anyway.
+  static long toDelayNanos(final Duration duration) {
+    if (duration.isNegative()) return 0L;
+    try {
+      return duration.toNanos();
+    } catch (final ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+}
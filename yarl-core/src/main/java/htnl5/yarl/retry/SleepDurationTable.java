@@ -0,0 +1,28 @@
+package htnl5.yarl.retry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+
+// Sleep durations known up front, copied into a table that executions only ever read, so a policy can be shared
+// across threads. A retry past the end of the table, once maxRetryCount has been raised, sleeps for the last duration
+// rather than not at all.
+final class SleepDurationTable implements Backoff {
+  private final long[] delays;
+
+  SleepDurationTable(final Collection<Duration> sleepDurations) {
+    delays = new long[sleepDurations.size()];
+    var index = 0;
+    for (final var sleepDuration : sleepDurations) {
+      if (index == delays.length) break;
+      Objects.requireNonNull(sleepDuration, "sleepDurations must not contain null.");
+      delays[index++] = SleepDurationSequence.toDelayNanos(sleepDuration);
+    }
+  }
+
+  @Override
+  public long delayNanos(final int tryCount, final long previousDelayNanos) {
+    if (delays.length == 0) return 0L;
+    return delays[Math.min(tryCount, delays.length) - 1];
+  }
+}
@@ -0,0 +1,35 @@
+package htnl5.yarl.retry;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Wakes an async retry once its sleep has passed. The task only hands the next attempt to the policy's executor, so
+// implementations may run it on their own thread.
+@FunctionalInterface
+public interface SleepScheduler {
+  ScheduledSleep schedule(final Duration duration, final Runnable task);
+
+  // One hashed wheel timer, with a 10 ms tick and 512 buckets, serving every policy that is not given its own.
+  static SleepScheduler shared() {
+    return HashedWheelTimer.SHARED;
+  }
+
+  // Schedules through CompletableFuture.delayedExecutor and the JDK's single delayer thread.
+  static SleepScheduler delayedExecutor() {
+    return (duration, task) -> {
+      Objects.requireNonNull(duration, "duration must not be null.");
+      Objects.requireNonNull(task, "task must not be null.");
+      final var future = CompletableFuture.runAsync(task,
+        CompletableFuture.delayedExecutor(duration.toNanos(), TimeUnit.NANOSECONDS, Runnable::run));
+      return () -> future.cancel(false);
+    };
+  }
+
+  @FunctionalInterface
+  interface ScheduledSleep {
+    // Returns false when the task has already run or been cancelled.
+    boolean cancel();
+  }
+}
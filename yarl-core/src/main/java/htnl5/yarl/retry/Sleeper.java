@@ -1,9 +1,37 @@
 package htnl5.yarl.retry;
 
 import java.time.Duration;
+import java.util.Objects;
 
-interface Sleeper {
-  default void sleep(final Duration duration) throws InterruptedException {
-    Thread.sleep(duration.toMillis());
+// How a synchronous retry waits out its sleep duration.
+@FunctionalInterface
+public interface Sleeper {
+  void sleep(final Duration duration) throws InterruptedException;
+
+  // Parks to the nanosecond, through ForkJoinPool.managedBlock on a ForkJoinPool worker. The default.
+  static Sleeper system() {
+    return ManagedSleeper.PARKING;
+  }
+
+  // Parks the thread until the duration has passed, to the nanosecond. A virtual thread gives up its carrier while
+  // parked.
+  static Sleeper parking() {
+    return ParkingSleeper.INSTANCE;
+  }
+
+  // Thread.sleep, passing on the nanoseconds as well as the milliseconds; the scheduler may still round them.
+  static Sleeper threadSleep() {
+    return duration -> {
+      final var nanos = SleepDurationSequence.toDelayNanos(duration);
+      Thread.sleep(nanos / 1_000_000L, (int) (nanos % 1_000_000L));
+    };
+  }
+
+  // Blocks through ForkJoinPool.managedBlock when called on a ForkJoinPool worker, so that the pool can start a spare
+  // worker instead of running short while this one sleeps. On any other thread, including a virtual thread, it just
+  // delegates.
+  static Sleeper managed(final Sleeper sleeper) {
+    Objects.requireNonNull(sleeper, "sleeper must not be null.");
+    return new ManagedSleeper(sleeper);
   }
 }
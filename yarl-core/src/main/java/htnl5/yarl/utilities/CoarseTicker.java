@@ -0,0 +1,33 @@
+package htnl5.yarl.utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+// The reading is refreshed by a daemon thread, so reading it is a single volatile load. Readings lag the system ticker
+// by up to the resolution, and by more when the refreshing thread is not scheduled in time.
+final class CoarseTicker implements Ticker {
+  private static final Map<Long, CoarseTicker> TICKERS = new ConcurrentHashMap<>();
+
+  private volatile long nanos = SystemTicker.INSTANCE.nanos();
+
+  private CoarseTicker(final long resolutionNanos) {
+    final var thread = new Thread(() -> {
+      while (true) {
+        LockSupport.parkNanos(resolutionNanos);
+        nanos = SystemTicker.INSTANCE.nanos();
+      }
+    }, "yarl-coarse-ticker-" + resolutionNanos + "ns");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  static CoarseTicker of(final long resolutionNanos) {
+    return TICKERS.computeIfAbsent(resolutionNanos, CoarseTicker::new);
+  }
+
+  @Override
+  public long nanos() {
+    return nanos;
+  }
+}
@@ -0,0 +1,15 @@
+package htnl5.yarl.utilities;
+
+final class SystemTicker implements Ticker {
+  static final SystemTicker INSTANCE = new SystemTicker();
+
+  private final long origin = System.nanoTime();
+
+  private SystemTicker() {
+  }
+
+  @Override
+  public long nanos() {
+    return System.nanoTime() - origin;
+  }
+}
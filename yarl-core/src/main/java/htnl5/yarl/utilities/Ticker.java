@@ -0,0 +1,46 @@
+package htnl5.yarl.utilities;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+
+// Monotonic time for measuring intervals, unaffected by the wall clock being stepped. Only the difference between two
+// readings of the same ticker is meaningful.
+@FunctionalInterface
+public interface Ticker {
+  long nanos();
+
+  default long millis() {
+    return Math.floorDiv(nanos(), 1_000_000L);
+  }
+
+  // System.nanoTime, counted from when this class was loaded so readings are never negative.
+  static Ticker system() {
+    return SystemTicker.INSTANCE;
+  }
+
+  // Reads a value cached by a background thread and refreshed every resolution, for callers that read the time on
+  // every call and can live with that resolution. Tickers of the same resolution share one thread.
+  static Ticker coarse(final Duration resolution) {
+    Objects.requireNonNull(resolution, "resolution must not be null.");
+    if (resolution.isNegative() || resolution.isZero())
+      throw new IllegalArgumentException("resolution must be greater than zero.");
+    return CoarseTicker.of(resolution.toNanos());
+  }
+
+  // Follows the clock, steps and all; for tests that move time by hand.
+  static Ticker of(final Clock clock) {
+    Objects.requireNonNull(clock, "clock must not be null.");
+    return new Ticker() {
+      @Override
+      public long nanos() {
+        return clock.millis() * 1_000_000L;
+      }
+
+      @Override
+      public long millis() {
+        return clock.millis();
+      }
+    };
+  }
+}
@@ -1060,6 +1060,230 @@ public class AdvancedCircuitBreakerTest {
     assertThat(state4).isEqualTo(CircuitBreakerState.CLOSED);
   }
   //</editor-fold>
+
+  //<editor-fold desc="with striped health metrics">
+  @Test
+  public void shouldOpenCircuitWithTheLastRaisedExceptionIfFailureThresholdExceededAndThroughputThresholdEqualledWithStripedHealthMetrics() {
+    final var clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
+    final var breaker = CircuitBreakerPolicy
+      .advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .stripedHealthMetrics()
+      .handle(ArithmeticException.class)
+      .clock(clock)
+      .build();
+
+    final var throwable1 = catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var throwable2 = catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var throwable3 = catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var state3 = breaker.getState();
+    final var throwable4 = catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var state4 = breaker.getState();
+    final var throwable5 = catchThrowable(() -> breaker.execute(() -> null));
+
+    assertThat(throwable1).isInstanceOf(ArithmeticException.class);
+    assertThat(throwable2).isInstanceOf(ArithmeticException.class);
+    assertThat(throwable3).isInstanceOf(ArithmeticException.class);
+    assertThat(state3).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(throwable4).isInstanceOf(ArithmeticException.class);
+    assertThat(state4).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(throwable5).isInstanceOf(BrokenCircuitException.class)
+      .hasCauseInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  public void shouldNotOpenCircuitIfFailuresFallOutOfSamplingDurationWithStripedHealthMetrics() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var samplingDuration = Duration.ofSeconds(10);
+    final var breaker = CircuitBreakerPolicy
+      .advancedBuilder(0.5, samplingDuration, 4, Duration.ofSeconds(30))
+      .stripedHealthMetrics()
+      .handle(ArithmeticException.class)
+      .clock(clock)
+      .build();
+
+    final var throwable1 = catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var throwable2 = catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var throwable3 = catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    // The earlier failures are older than the sampling duration, whichever window they were counted in.
+    clock.setInstant(instant.plus(samplingDuration).plus(samplingDuration));
+    breaker.execute(() -> null);
+    final var throwable4 = catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var state4 = breaker.getState();
+
+    assertThat(throwable1).isInstanceOf(ArithmeticException.class);
+    assertThat(throwable2).isInstanceOf(ArithmeticException.class);
+    assertThat(throwable3).isInstanceOf(ArithmeticException.class);
+    assertThat(throwable4).isInstanceOf(ArithmeticException.class);
+    assertThat(state4).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+  //</editor-fold>
+  //</editor-fold>
+
+  //<editor-fold desc="slow call tests">
+  @Test
+  public void shouldThrowWhenSlowCallDurationIsZero() {
+    final var throwable = catchThrowable(() -> CircuitBreakerPolicy
+      .advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .slowCallThreshold(Duration.ZERO, 0.5));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("slowCallDuration must be greater than zero.");
+  }
+
+  @Test
+  public void shouldThrowWhenSlowCallRateThresholdIsGreaterThanOne() {
+    final var throwable = catchThrowable(() -> CircuitBreakerPolicy
+      .advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .slowCallThreshold(Duration.ofSeconds(1), 1.5));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("slowCallRateThreshold must be less than or equal to one.");
+  }
+
+  @Test
+  public void shouldOpenCircuitWhenSlowCallRateThresholdReachedEvenThoughCallsSucceed() throws Throwable {
+    final var breakEvent = new AtomicReference<BreakEvent<?>>();
+    final var breaker = CircuitBreakerPolicy
+      .advancedBuilder(0.5, Duration.ofSeconds(10), 2, Duration.ofSeconds(30))
+      .slowCallThreshold(Duration.ofMillis(20), 0.5)
+      .handle(ArithmeticException.class)
+      .onBreak(breakEvent::set)
+      .build();
+
+    breaker.execute(() -> {
+      TimeUnit.MILLISECONDS.sleep(40);
+      return null;
+    });
+    final var state1 = breaker.getState();
+    breaker.execute(() -> {
+      TimeUnit.MILLISECONDS.sleep(40);
+      return null;
+    });
+    final var state2 = breaker.getState();
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(state2).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(breakEvent.get().slowCalls()).isEqualTo(2);
+    assertThat(breakEvent.get().outcome().getOrThrow()).isNull();
+  }
+
+  @Test
+  public void shouldKeepLastOutcomeWhenSlowCallDoesNotOpenCircuit() throws Throwable {
+    final var breaker = CircuitBreakerPolicy
+      .advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .slowCallThreshold(Duration.ofMillis(20), 0.5)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.execute(() -> {
+      TimeUnit.MILLISECONDS.sleep(40);
+      return "slow";
+    });
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(breaker.getLastOutcome()).hasValueSatisfying(outcome ->
+      assertThat(outcome).isInstanceOf(DelegateResult.Failure.class));
+  }
+
+  @Test
+  public void shouldReportSlowResultWhenCircuitOpenedOnlyBySlowCalls() throws Throwable {
+    final var breakEvent = new AtomicReference<BreakEvent<?>>();
+    final var breaker = CircuitBreakerPolicy
+      .advancedBuilder(0.5, Duration.ofSeconds(10), 2, Duration.ofSeconds(30))
+      .slowCallThreshold(Duration.ofMillis(20), 0.5)
+      .handle(ArithmeticException.class)
+      .onBreak(breakEvent::set)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.reset();
+    for (var i = 0; i < 2; i++) {
+      breaker.execute(() -> {
+        TimeUnit.MILLISECONDS.sleep(40);
+        return "slow";
+      });
+    }
+    final var throwable = catchThrowable(() -> breaker.execute(() -> "fast"));
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(breakEvent.get().outcome().getOrThrow()).isEqualTo("slow");
+    assertThat(throwable).isInstanceOf(BrokenCircuitWithResultException.class);
+    assertThat(((BrokenCircuitWithResultException) throwable).getResult()).isEqualTo("slow");
+  }
+
+  @Test
+  public void shouldNotOpenCircuitWhenSlowCallRateIsBelowThreshold() throws Throwable {
+    final var breaker = CircuitBreakerPolicy
+      .advancedBuilder(0.5, Duration.ofSeconds(10), 2, Duration.ofSeconds(30))
+      .slowCallThreshold(Duration.ofMillis(20), 0.5)
+      .handle(ArithmeticException.class)
+      .build();
+
+    breaker.execute(() -> null);
+    breaker.execute(() -> null);
+    breaker.execute(() -> {
+      TimeUnit.MILLISECONDS.sleep(40);
+      return null;
+    });
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldCountSlowFailuresTowardsBothThresholds() {
+    final var breakEvent = new AtomicReference<BreakEvent<?>>();
+    final var breaker = CircuitBreakerPolicy
+      .advancedBuilder(1d, Duration.ofSeconds(10), 2, Duration.ofSeconds(30))
+      .slowCallThreshold(Duration.ofMillis(20), 1d)
+      .handle(ArithmeticException.class)
+      .onBreak(breakEvent::set)
+      .build();
+
+    final var throwable1 = catchThrowable(() -> breaker.execute(() -> {
+      TimeUnit.MILLISECONDS.sleep(40);
+      throw new ArithmeticException();
+    }));
+    final var throwable2 = catchThrowable(() -> breaker.execute(() -> {
+      TimeUnit.MILLISECONDS.sleep(40);
+      throw new ArithmeticException();
+    }));
+
+    assertThat(throwable1).isInstanceOf(ArithmeticException.class);
+    assertThat(throwable2).isInstanceOf(ArithmeticException.class);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(breakEvent.get().slowCalls()).isEqualTo(2);
+    assertThat(breakEvent.get().outcome().isFailure()).isTrue();
+  }
+
+  @Test
+  public void shouldOpenCircuitAgainWhenHalfOpenProbeSucceedsSlowly() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var durationOfBreak = Duration.ofSeconds(30);
+    final var breaker = CircuitBreakerPolicy
+      .advancedBuilder(0.5, Duration.ofSeconds(10), 2, durationOfBreak)
+      .slowCallThreshold(Duration.ofMillis(20), 0.5)
+      .handle(ArithmeticException.class)
+      .clock(clock)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var state1 = breaker.getState();
+    clock.setInstant(instant.plus(durationOfBreak));
+    final var state2 = breaker.getState();
+    breaker.execute(() -> {
+      TimeUnit.MILLISECONDS.sleep(40);
+      return null;
+    });
+    final var state3 = breaker.getState();
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(state2).isEqualTo(CircuitBreakerState.HALF_OPEN);
+    assertThat(state3).isEqualTo(CircuitBreakerState.OPEN);
+  }
   //</editor-fold>
 
   //<editor-fold desc="open -> half-open -> open/closed tests">
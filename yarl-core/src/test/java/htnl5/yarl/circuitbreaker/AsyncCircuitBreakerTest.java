@@ -0,0 +1,301 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.ExceptionType;
+import htnl5.yarl.PolicyResult;
+import htnl5.yarl.helpers.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static htnl5.yarl.helpers.AsyncPolicyUtils.raiseException;
+import static htnl5.yarl.helpers.AsyncPolicyUtils.raiseResults;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class AsyncCircuitBreakerTest {
+  //<editor-fold desc="configuration tests">
+  @Test
+  public void shouldThrowWhenExecutorIsNull() {
+    final var throwable = catchThrowable(() -> AsyncCircuitBreakerPolicy.builder().executor(null));
+
+    assertThat(throwable).isInstanceOf(NullPointerException.class)
+      .hasMessage("executor must not be null.");
+  }
+
+  @Test
+  public void shouldThrowWhenFailuresAllowedBeforeBreakingIsLessThanOne() {
+    final var throwable = catchThrowable(() -> AsyncCircuitBreakerPolicy.builder().failuresAllowedBeforeBreaking(0));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("failuresAllowedBeforeBreaking must be greater than zero.");
+  }
+
+  @Test
+  public void shouldThrowWhenAdvancedMinimumThroughputIsOne() {
+    final var throwable = catchThrowable(() -> AsyncCircuitBreakerPolicy.advancedBuilder(0.5, Duration.ofSeconds(10),
+      1, Duration.ofSeconds(30)));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("minimumThroughput must be greater than one.");
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="threshold-to-break tests">
+  @Test
+  public void shouldOpenCircuitAfterSpecifiedNumberOfHandledExceptions() {
+    final var breaker = AsyncCircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(2)
+      .handle(ArithmeticException.class)
+      .build();
+
+    final var throwable1 = catchThrowable(() -> raiseException(breaker, ArithmeticException.class).join());
+    final var state1 = breaker.getState();
+    final var throwable2 = catchThrowable(() -> raiseException(breaker, ArithmeticException.class).join());
+    final var state2 = breaker.getState();
+
+    assertThat(throwable1).isInstanceOf(CompletionException.class)
+      .hasCauseInstanceOf(ArithmeticException.class);
+    assertThat(state1).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(throwable2).isInstanceOf(CompletionException.class)
+      .hasCauseInstanceOf(ArithmeticException.class);
+    assertThat(state2).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  @Test
+  public void shouldOpenCircuitAfterSpecifiedNumberOfHandledResults() {
+    final var breaker = AsyncCircuitBreakerPolicy.<Integer>builder()
+      .failuresAllowedBeforeBreaking(2)
+      .handleResult(-1)
+      .build();
+
+    final var result1 = raiseResults(breaker, -1).join();
+    final var result2 = raiseResults(breaker, -1).join();
+    final var throwable3 = catchThrowable(() -> raiseResults(breaker, 1).join());
+
+    assertThat(result1).isEqualTo(-1);
+    assertThat(result2).isEqualTo(-1);
+    assertThat(throwable3).isInstanceOf(CompletionException.class)
+      .hasCauseInstanceOf(BrokenCircuitWithResultException.class);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  @Test
+  public void shouldNotOpenCircuitForUnhandledExceptions() {
+    final var breaker = AsyncCircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .build();
+
+    final var throwable = catchThrowable(() -> raiseException(breaker, IllegalArgumentException.class).join());
+
+    assertThat(throwable).isInstanceOf(CompletionException.class)
+      .hasCauseInstanceOf(IllegalArgumentException.class);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldRecordExceptionThrownBeforeActionReturnsAStage() {
+    final var breaker = AsyncCircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .build();
+
+    final var throwable = catchThrowable(() -> breaker.execute(() -> {
+      throw new ArithmeticException();
+    }).join());
+
+    assertThat(throwable).isInstanceOf(CompletionException.class)
+      .hasCauseInstanceOf(ArithmeticException.class);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  @Test
+  public void shouldOpenAdvancedCircuitWhenFailureThresholdExceeded() {
+    final var breaker = AsyncCircuitBreakerPolicy
+      .advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .build();
+
+    raiseResults(breaker, (Object) null).join();
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class).join());
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class).join());
+    final var state1 = breaker.getState();
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class).join());
+    final var state2 = breaker.getState();
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(state2).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  @Test
+  public void shouldTimeAsyncCallsUntilTheirStageCompletes() {
+    final var breaker = AsyncCircuitBreakerPolicy
+      .advancedBuilder(0.5, Duration.ofSeconds(10), 2, Duration.ofSeconds(30))
+      .slowCallThreshold(Duration.ofMillis(20), 0.5)
+      .handle(ArithmeticException.class)
+      .build();
+    final var delayed = CompletableFuture.delayedExecutor(40, TimeUnit.MILLISECONDS);
+
+    breaker.execute(() -> CompletableFuture.supplyAsync(() -> null, delayed)).join();
+    final var state1 = breaker.getState();
+    breaker.execute(() -> CompletableFuture.supplyAsync(() -> null, delayed)).join();
+    final var state2 = breaker.getState();
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(state2).isEqualTo(CircuitBreakerState.OPEN);
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="open circuit tests">
+  @Test
+  public void shouldRejectWithFailedFutureWithoutExecutingActionWhenCircuitIsOpen() {
+    final var breaker = AsyncCircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .build();
+    final var actionExecuted = new AtomicBoolean();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class).join());
+    final var future = breaker.execute(() -> {
+      actionExecuted.set(true);
+      return CompletableFuture.completedFuture(null);
+    });
+
+    assertThat(future).isCompletedExceptionally();
+    assertThat(catchThrowable(future::join)).isInstanceOf(CompletionException.class)
+      .cause()
+      .isInstanceOf(BrokenCircuitException.class)
+      .hasMessage("The circuit is now open and is not allowing calls.")
+      .hasCauseInstanceOf(ArithmeticException.class);
+    assertThat(actionExecuted.get()).isFalse();
+  }
+
+  @Test
+  public void shouldCaptureRejectionWhenCircuitIsIsolated() {
+    final var breaker = AsyncCircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .build();
+
+    breaker.isolate();
+    final var result = breaker.executeAndCapture(() -> CompletableFuture.completedFuture(null)).join();
+
+    assertThat(result).isInstanceOf(PolicyResult.Failure.FailureWithException.class);
+    final var failure = (PolicyResult.Failure.FailureWithException<Object>) result;
+    assertThat(failure.getFinalException()).isInstanceOf(IsolatedCircuitBreakerException.class);
+    assertThat(failure.getExceptionType()).isEqualTo(ExceptionType.UNHANDLED);
+  }
+
+  @Test
+  public void shouldCloseCircuitWhenProbeSucceedsAfterDurationOfBreak() {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var durationOfBreak = Duration.ofMinutes(1);
+    final var breaker = AsyncCircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .durationOfBreak(durationOfBreak)
+      .clock(clock)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class).join());
+    final var state1 = breaker.getState();
+    clock.setInstant(instant.plus(durationOfBreak));
+    final var state2 = breaker.getState();
+    breaker.execute(() -> CompletableFuture.completedFuture(null)).join();
+    final var state3 = breaker.getState();
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(state2).isEqualTo(CircuitBreakerState.HALF_OPEN);
+    assertThat(state3).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldRecordOutcomeOnThreadThatCompletesTheAction() throws InterruptedException {
+    final var breaker = AsyncCircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .build();
+    final var pending = new CompletableFuture<Object>();
+    final var recordingThread = new AtomicReference<Thread>();
+
+    final var future = breaker.execute(() -> pending);
+    future.whenComplete((r, e) -> recordingThread.set(Thread.currentThread()));
+    final var state1 = breaker.getState();
+    final var completer = new Thread(() -> pending.completeExceptionally(new ArithmeticException()));
+    completer.start();
+    completer.join();
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(recordingThread.get()).isSameAs(completer);
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="half-open probe tests">
+  @Test
+  public void shouldThrowWhenHalfOpenProbesIsZero() {
+    final var throwable = catchThrowable(() -> AsyncCircuitBreakerPolicy.builder().halfOpenProbes(0, 1d));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("halfOpenProbes must be greater than zero.");
+  }
+
+  @Test
+  public void shouldLetConfiguredNumberOfProbesThroughAndCloseOnceEnoughHaveSucceeded() {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var durationOfBreak = Duration.ofMinutes(1);
+    final var breaker = AsyncCircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .durationOfBreak(durationOfBreak)
+      .halfOpenProbes(3, 0.6)
+      .clock(clock)
+      .build();
+    final var probes = List.of(new CompletableFuture<Object>(), new CompletableFuture<>(), new CompletableFuture<>());
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class).join());
+    clock.setInstant(instant.plus(durationOfBreak));
+    final var results = probes.stream()
+      .map(probe -> breaker.execute(() -> probe))
+      .toList();
+    final var rejected = breaker.execute(() -> CompletableFuture.completedFuture(null));
+    probes.get(0).complete(null);
+    final var state1 = breaker.getState();
+    probes.get(1).complete(null);
+    final var state2 = breaker.getState();
+
+    assertThat(results).noneMatch(CompletableFuture::isCompletedExceptionally);
+    assertThat(catchThrowable(rejected::join)).hasCauseInstanceOf(BrokenCircuitException.class);
+    assertThat(state1).isEqualTo(CircuitBreakerState.HALF_OPEN);
+    assertThat(state2).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldBreakAgainAsSoonAsTooManyProbesHaveFailed() {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var durationOfBreak = Duration.ofMinutes(1);
+    final var breaker = AsyncCircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .durationOfBreak(durationOfBreak)
+      .halfOpenProbes(3, 0.6)
+      .clock(clock)
+      .build();
+    final var probes = List.of(new CompletableFuture<Object>(), new CompletableFuture<>(), new CompletableFuture<>());
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class).join());
+    clock.setInstant(instant.plus(durationOfBreak));
+    probes.forEach(probe -> breaker.execute(() -> probe));
+    probes.get(0).completeExceptionally(new ArithmeticException());
+    final var state1 = breaker.getState();
+    probes.get(1).completeExceptionally(new ArithmeticException());
+    final var state2 = breaker.getState();
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.HALF_OPEN);
+    assertThat(state2).isEqualTo(CircuitBreakerState.OPEN);
+  }
+  //</editor-fold>
+}
@@ -62,4 +62,31 @@ public class CircuitBreakerConfigurationTest {
 
     assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
   }
+
+  @Test
+  public void shouldThrowIfExponentialBreakDurationFactorIsLessThanOne() {
+    final var throwable = catchThrowable(() -> CircuitBreakerPolicy.<Result>builder()
+      .exponentialBreakDuration(0.5, Duration.ofMinutes(10)));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("factor must be greater than or equal to one.");
+  }
+
+  @Test
+  public void shouldThrowIfExponentialBreakDurationFactorIsNaN() {
+    final var throwable = catchThrowable(() -> CircuitBreakerPolicy.<Result>builder()
+      .exponentialBreakDuration(Double.NaN, Duration.ofMinutes(10)));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("factor must be greater than or equal to one.");
+  }
+
+  @Test
+  public void shouldThrowIfBreakDurationJitterIsGreaterThanOne() {
+    final var throwable = catchThrowable(() -> CircuitBreakerPolicy.<Result>builder()
+      .breakDurationJitter(1.5));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("breakDurationJitter must be less than or equal to one.");
+  }
 }
@@ -0,0 +1,256 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.helpers.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static htnl5.yarl.helpers.PolicyUtils.raiseException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class CircuitBreakerEventsTest {
+  @Test
+  public void shouldThrowWhenEventExecutorIsNull() {
+    final var throwable = catchThrowable(() -> CircuitBreakerPolicy.builder().eventExecutor(null));
+
+    assertThat(throwable).isInstanceOf(NullPointerException.class)
+      .hasMessage("eventExecutor must not be null.");
+  }
+
+  @Test
+  public void shouldThrowWhenEventBufferCapacityIsZero() {
+    final var throwable = catchThrowable(() -> CircuitBreakerPolicy.builder().eventExecutor(Runnable::run, 0));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("eventBufferCapacity must be greater than zero.");
+  }
+
+  @Test
+  public void shouldNotWaitForSlowListenerWhenEventExecutorIsConfigured() throws InterruptedException {
+    final var executor = Executors.newSingleThreadExecutor();
+    final var release = new CountDownLatch(1);
+    final var called = new CountDownLatch(1);
+    final var listenerThread = new AtomicReference<Thread>();
+    try {
+      final var breaker = CircuitBreakerPolicy.builder()
+        .failuresAllowedBeforeBreaking(1)
+        .onBreak(event -> {
+          listenerThread.set(Thread.currentThread());
+          called.countDown();
+          try {
+            release.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        })
+        .eventExecutor(executor)
+        .handle(ArithmeticException.class)
+        .build();
+
+      catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+      final var state = breaker.getState();
+      release.countDown();
+
+      assertThat(state).isEqualTo(CircuitBreakerState.OPEN);
+      assertThat(called.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(listenerThread.get()).isNotSameAs(Thread.currentThread());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldCallListenersInOrderOfTransitionsWhenEventExecutorIsConfigured() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var transitions = new CopyOnWriteArrayList<String>();
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .durationOfBreak(Duration.ofSeconds(30))
+      .onBreak(event -> transitions.add("break"))
+      .onHalfOpen(() -> transitions.add("half-open"))
+      .onReset(context -> transitions.add("reset"))
+      .eventExecutor(Runnable::run)
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    clock.setInstant(instant.plus(Duration.ofSeconds(30)));
+    breaker.execute(() -> null);
+
+    assertThat(transitions).containsExactly("break", "half-open", "reset");
+  }
+
+  @Test
+  public void shouldKeepCallingListenersAfterListenerThrows() {
+    final var breaks = new CopyOnWriteArrayList<BreakEvent<?>>();
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .onBreak(event -> {
+        breaks.add(event);
+        throw new IllegalStateException();
+      })
+      .eventExecutor(Runnable::run)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.reset();
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+
+    assertThat(breaks).hasSize(2);
+  }
+
+  @Test
+  public void shouldPublishEventsToEverySubscriber() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .eventExecutor(Runnable::run)
+      .handle(ArithmeticException.class)
+      .build();
+    final var subscriber1 = new RecordingSubscriber(Long.MAX_VALUE);
+    final var subscriber2 = new RecordingSubscriber(Long.MAX_VALUE);
+    breaker.getEvents().subscribe(subscriber1);
+    breaker.getEvents().subscribe(subscriber2);
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.reset();
+
+    assertThat(subscriber1.events).hasSize(2);
+    assertThat(subscriber1.events.get(0)).isInstanceOf(BreakEvent.class);
+    assertThat(subscriber1.events.get(1)).isInstanceOf(ResetEvent.class);
+    assertThat(subscriber2.events).isEqualTo(subscriber1.events);
+  }
+
+  @Test
+  public void shouldPublishEventsWithoutEventExecutor() throws InterruptedException {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .handle(ArithmeticException.class)
+      .build();
+    final var received = new CountDownLatch(1);
+    breaker.getEvents().subscribe(new RecordingSubscriber(Long.MAX_VALUE) {
+      @Override
+      public void onNext(final CircuitBreakerEvent<?> item) {
+        super.onNext(item);
+        received.countDown();
+      }
+    });
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+
+    assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void shouldOnlyDeliverEventsSubscriberHasRequested() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .eventExecutor(Runnable::run)
+      .handle(ArithmeticException.class)
+      .build();
+    final var subscriber = new RecordingSubscriber(1);
+    breaker.getEvents().subscribe(subscriber);
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.reset();
+    final var events = List.copyOf(subscriber.events);
+    subscriber.subscription.request(1);
+
+    assertThat(events).hasSize(1);
+    assertThat(subscriber.events).hasSize(2);
+  }
+
+  @Test
+  public void shouldDropEventsForSubscriberWhoseBufferIsFull() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .eventExecutor(Runnable::run, 1)
+      .handle(ArithmeticException.class)
+      .build();
+    final var subscriber = new RecordingSubscriber(0);
+    breaker.getEvents().subscribe(subscriber);
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.reset();
+    subscriber.subscription.request(Long.MAX_VALUE);
+
+    assertThat(subscriber.events).hasSize(1);
+    assertThat(subscriber.events.get(0)).isInstanceOf(BreakEvent.class);
+  }
+
+  @Test
+  public void shouldNotDropEventsForListenersWhenTheyFallBehind() throws InterruptedException {
+    final var executor = Executors.newSingleThreadExecutor();
+    final var release = new CountDownLatch(1);
+    final var transitions = new CopyOnWriteArrayList<String>();
+    try {
+      final var breaker = CircuitBreakerPolicy.builder()
+        .failuresAllowedBeforeBreaking(1)
+        .onBreak(event -> {
+          try {
+            release.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          transitions.add("break");
+        })
+        .onReset(context -> transitions.add("reset"))
+        .eventExecutor(executor, 1)
+        .handle(ArithmeticException.class)
+        .build();
+
+      for (var i = 0; i < 3; i++) {
+        catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+        breaker.reset();
+      }
+      release.countDown();
+      executor.shutdown();
+
+      assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(transitions).containsExactly("break", "reset", "break", "reset", "break", "reset");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static class RecordingSubscriber implements Flow.Subscriber<CircuitBreakerEvent<?>> {
+    private final long initialRequest;
+    private final List<CircuitBreakerEvent<?>> events = new CopyOnWriteArrayList<>();
+    private Flow.Subscription subscription;
+
+    private RecordingSubscriber(final long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+      this.subscription = subscription;
+      if (initialRequest > 0) subscription.request(initialRequest);
+    }
+
+    @Override
+    public void onNext(final CircuitBreakerEvent<?> item) {
+      events.add(item);
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+  }
+}
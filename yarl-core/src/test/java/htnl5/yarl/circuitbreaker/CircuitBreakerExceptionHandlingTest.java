@@ -1,10 +1,21 @@
 package htnl5.yarl.circuitbreaker;
 
+import htnl5.yarl.ExceptionType;
+import htnl5.yarl.PolicyResult;
+import htnl5.yarl.helpers.MutableClock;
 import htnl5.yarl.helpers.PolicyUtils;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static htnl5.yarl.helpers.PolicyUtils.raiseException;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -61,5 +72,385 @@ public class CircuitBreakerExceptionHandlingTest {
     assertThat(state3).isEqualTo(CircuitBreakerState.OPEN);
     assertThat(delegateExecutedWhenBroken.get()).isFalse();
   }
+
+  @Test
+  public void shouldBreakExactlyOnceWhenThresholdIsReachedByConcurrentFailures() throws InterruptedException {
+    final var breakCount = new AtomicInteger();
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(100)
+      .handle(ArithmeticException.class)
+      .onBreak(event -> breakCount.incrementAndGet())
+      .build();
+    final var start = new CountDownLatch(1);
+    final var threads = new ArrayList<Thread>();
+    for (var i = 0; i < 8; i++) {
+      final var thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        for (var j = 0; j < 50; j++) {
+          catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.countDown();
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(breakCount.get()).isEqualTo(1);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(breaker.getLastOutcome()).hasValueSatisfying(outcome -> assertThat(outcome.isFailure()).isTrue());
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="rejection tests">
+  @Test
+  public void shouldRejectWithTheSameStacklessExceptionWhileOpenWhenStacklessRejectionsAreEnabled() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .handle(ArithmeticException.class)
+      .stacklessRejections()
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var throwable1 = catchThrowable(() -> breaker.execute(() -> null));
+    final var throwable2 = catchThrowable(() -> breaker.execute(() -> null));
+
+    assertThat(throwable1).isInstanceOf(BrokenCircuitException.class)
+      .hasMessage("The circuit is now open and is not allowing calls.")
+      .hasCauseInstanceOf(ArithmeticException.class);
+    assertThat(throwable1.getStackTrace()).isEmpty();
+    assertThat(throwable2).isSameAs(throwable1);
+  }
+
+  @Test
+  public void shouldBuildNewStacklessRejectionForEachBreakWhenStacklessRejectionsAreEnabled() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .handle(ArithmeticException.class)
+      .handle(IllegalArgumentException.class)
+      .stacklessRejections()
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var throwable1 = catchThrowable(() -> breaker.execute(() -> null));
+    breaker.reset();
+    catchThrowable(() -> raiseException(breaker, IllegalArgumentException.class));
+    final var throwable2 = catchThrowable(() -> breaker.execute(() -> null));
+
+    assertThat(throwable1).hasCauseInstanceOf(ArithmeticException.class);
+    assertThat(throwable2).isNotSameAs(throwable1)
+      .hasCauseInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void shouldRejectWithStacklessIsolatedExceptionWhenIsolatedAndStacklessRejectionsAreEnabled() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .stacklessRejections()
+      .build();
+
+    breaker.isolate();
+    final var throwable1 = catchThrowable(() -> breaker.execute(() -> null));
+    final var throwable2 = catchThrowable(() -> breaker.execute(() -> null));
+
+    assertThat(throwable1).isInstanceOf(IsolatedCircuitBreakerException.class);
+    assertThat(throwable1.getStackTrace()).isEmpty();
+    assertThat(throwable2).isSameAs(throwable1);
+  }
+
+  @Test
+  public void shouldRejectWithNewExceptionEachTimeByDefault() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var throwable1 = catchThrowable(() -> breaker.execute(() -> null));
+    final var throwable2 = catchThrowable(() -> breaker.execute(() -> null));
+
+    assertThat(throwable1.getStackTrace()).isNotEmpty();
+    assertThat(throwable2).isNotSameAs(throwable1);
+  }
+
+  @Test
+  public void shouldReturnRejectionAsFailureWithoutExecutingWhenTryExecuteIsCalledOnOpenCircuit() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .handle(ArithmeticException.class)
+      .build();
+    final var delegateExecutedWhenBroken = new AtomicBoolean();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var result = breaker.tryExecute(() -> {
+      delegateExecutedWhenBroken.set(true);
+      return null;
+    });
+
+    assertThat(result.isFailureWithException()).isTrue();
+    final var failure = (PolicyResult.Failure.FailureWithException<Object>) result;
+    assertThat(failure.getFinalException()).isInstanceOf(BrokenCircuitException.class)
+      .hasCauseInstanceOf(ArithmeticException.class);
+    assertThat(failure.getExceptionType()).isEqualTo(ExceptionType.UNHANDLED);
+    assertThat(delegateExecutedWhenBroken.get()).isFalse();
+  }
+
+  @Test
+  public void shouldReportOpenWithoutWaitingForLockWhileCircuitIsBroken() {
+    final var breakerRef = new AtomicReference<CircuitBreakerPolicy<Object, ?>>();
+    final var stateSeenFromOtherThread = new AtomicReference<CircuitBreakerState>();
+    // The break listener runs while the controller holds its lock.
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .handle(ArithmeticException.class)
+      .onBreak(event -> {
+        final var reader = new Thread(() -> stateSeenFromOtherThread.set(breakerRef.get().getState()));
+        reader.start();
+        try {
+          reader.join(1000);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      })
+      .build();
+    breakerRef.set(breaker);
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+
+    assertThat(stateSeenFromOtherThread.get()).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  @Test
+  public void shouldExecuteAndCaptureWhenTryExecuteIsCalledOnClosedCircuit() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .build();
+
+    final var success = breaker.tryExecute(() -> 1);
+    final var failure = breaker.tryExecute(() -> {
+      throw new ArithmeticException();
+    });
+
+    assertThat(success.isSuccess()).isTrue();
+    assertThat(failure.isFailureWithException()).isTrue();
+    assertThat(((PolicyResult.Failure.FailureWithException<Object>) failure).getExceptionType())
+      .isEqualTo(ExceptionType.HANDLED_BY_THIS_POLICY);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="ramp-up tests">
+  @Test
+  public void shouldRejectCallsRightAfterClosingAndAdmitAllOnceRampUpIsOver() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var durationOfBreak = Duration.ofMinutes(1);
+    final var rampUp = Duration.ofSeconds(10);
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .durationOfBreak(durationOfBreak)
+      .rampUp(rampUp)
+      .clock(clock)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    clock.setInstant(instant.plus(durationOfBreak));
+    breaker.execute(() -> null);
+    final var state = breaker.getState();
+    final var throwable1 = catchThrowable(() -> breaker.execute(() -> null));
+    clock.setInstant(instant.plus(durationOfBreak).plus(rampUp));
+    final var throwable2 = catchThrowable(() -> breaker.execute(() -> null));
+
+    assertThat(state).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(throwable1).isInstanceOf(BrokenCircuitException.class)
+      .hasMessage("The circuit is ramping up and is not allowing this call.");
+    assertThat(throwable2).isNull();
+  }
+
+  @Test
+  public void shouldAdmitAGrowingShareOfCallsDuringRampUp() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var durationOfBreak = Duration.ofMinutes(1);
+    final var rampUp = Duration.ofSeconds(10);
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .durationOfBreak(durationOfBreak)
+      .rampUp(rampUp)
+      .clock(clock)
+      .build();
+    final var admitted = new AtomicInteger();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    clock.setInstant(instant.plus(durationOfBreak));
+    breaker.execute(() -> null);
+    clock.setInstant(instant.plus(durationOfBreak).plus(rampUp.dividedBy(2)));
+    for (var i = 0; i < 1000; i++) {
+      catchThrowable(() -> breaker.execute(admitted::incrementAndGet));
+    }
+
+    assertThat(admitted.get()).isBetween(350, 650);
+  }
+
+  @Test
+  public void shouldNotRampUpAfterManualReset() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .rampUp(Duration.ofMinutes(1))
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.reset();
+    final var throwable = catchThrowable(() -> breaker.execute(() -> null));
+
+    assertThat(throwable).isNull();
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="break duration tests">
+  @Test
+  public void shouldGrowBreakDurationExponentiallyUpToTheCapWhileProbesKeepFailing() {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var durations = new ArrayList<Duration>();
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .durationOfBreak(Duration.ofSeconds(10))
+      .exponentialBreakDuration(2d, Duration.ofSeconds(30))
+      .onBreak(event -> durations.add(event.durationOfBreak()))
+      .clock(clock)
+      .build();
+
+    var now = instant;
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    for (var i = 0; i < 3; i++) {
+      now = now.plus(durations.get(durations.size() - 1));
+      clock.setInstant(now);
+      catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    }
+
+    assertThat(durations).containsExactly(Duration.ofSeconds(10), Duration.ofSeconds(20), Duration.ofSeconds(30),
+      Duration.ofSeconds(30));
+  }
+
+  @Test
+  public void shouldStartBreakDurationsOverAfterStableClosedPeriod() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var durations = new ArrayList<Duration>();
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .durationOfBreak(Duration.ofSeconds(10))
+      .exponentialBreakDuration(2d, Duration.ofMinutes(10))
+      .breakCountResetAfter(Duration.ofMinutes(1))
+      .onBreak(event -> durations.add(event.durationOfBreak()))
+      .clock(clock)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    clock.setInstant(instant.plusSeconds(10));
+    breaker.execute(() -> null);
+    // Closed for less than breakCountResetAfter, so this counts as the second break in a row.
+    clock.setInstant(instant.plusSeconds(20));
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    clock.setInstant(instant.plusSeconds(40));
+    breaker.execute(() -> null);
+    clock.setInstant(instant.plusSeconds(100));
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+
+    assertThat(durations).containsExactly(Duration.ofSeconds(10), Duration.ofSeconds(20), Duration.ofSeconds(10));
+  }
+
+  @Test
+  public void shouldKeepJitteredBreakDurationWithinJitterFraction() {
+    final var durations = new ArrayList<Duration>();
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .durationOfBreak(Duration.ofSeconds(100))
+      .breakDurationJitter(0.2)
+      .onBreak(event -> durations.add(event.durationOfBreak()))
+      .build();
+
+    for (var i = 0; i < 50; i++) {
+      catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+      breaker.reset();
+    }
+
+    assertThat(durations).hasSize(50)
+      .allSatisfy(duration -> assertThat(duration).isBetween(Duration.ofSeconds(80), Duration.ofSeconds(120)));
+    assertThat(durations.stream().distinct().count()).isGreaterThan(1);
+  }
+
+  @Test
+  public void shouldNotLetJitterTakeBreakDurationPastExponentialCap() {
+    final var durations = new ArrayList<Duration>();
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .durationOfBreak(Duration.ofSeconds(100))
+      .exponentialBreakDuration(2d, Duration.ofSeconds(100))
+      .breakDurationJitter(1d)
+      .onBreak(event -> durations.add(event.durationOfBreak()))
+      .build();
+
+    for (var i = 0; i < 50; i++) {
+      catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+      breaker.reset();
+    }
+
+    assertThat(durations).hasSize(50)
+      .allSatisfy(duration -> assertThat(duration).isLessThanOrEqualTo(Duration.ofSeconds(100)));
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="ticker tests">
+  @Test
+  public void shouldNotEndBreakWhenWallClockIsSteppedForward() {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var ticks = new AtomicLong();
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .durationOfBreak(Duration.ofSeconds(30))
+      .clock(clock)
+      .ticker(ticks::get)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    clock.setInstant(instant.plus(Duration.ofHours(1)));
+    final var state1 = breaker.getState();
+    ticks.set(Duration.ofSeconds(30).toNanos());
+    final var state2 = breaker.getState();
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(state2).isEqualTo(CircuitBreakerState.HALF_OPEN);
+  }
+
+  @Test
+  public void shouldNotExtendBreakWhenWallClockIsSteppedBack() {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var ticks = new AtomicLong();
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .durationOfBreak(Duration.ofSeconds(30))
+      .clock(clock)
+      .ticker(ticks::get)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    clock.setInstant(instant.minus(Duration.ofHours(1)));
+    ticks.set(Duration.ofSeconds(30).toNanos());
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.HALF_OPEN);
+  }
   //</editor-fold>
 }
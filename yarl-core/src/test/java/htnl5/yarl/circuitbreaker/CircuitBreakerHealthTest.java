@@ -0,0 +1,182 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.helpers.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static htnl5.yarl.helpers.PolicyUtils.raiseException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class CircuitBreakerHealthTest {
+  @Test
+  public void shouldReportHealthOfNewBreaker() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .build();
+
+    final var health = breaker.getHealth();
+
+    assertThat(health.state()).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(health.total()).isZero();
+    assertThat(health.failureRate()).isZero();
+    assertThat(health.windowStartedAt()).isNull();
+    assertThat(health.untilHalfOpen()).isZero();
+    assertThat(health.trips()).isZero();
+  }
+
+  @Test
+  public void shouldReportConsecutiveFailures() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(3)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var health = breaker.getHealth();
+
+    assertThat(health.state()).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(health.failures()).isEqualTo(2);
+    assertThat(health.failureRate()).isEqualTo(1d);
+  }
+
+  @Test
+  public void shouldReportTimeUntilHalfOpenAndTrips() {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .durationOfBreak(Duration.ofSeconds(30))
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    clock.setInstant(instant.plus(Duration.ofSeconds(10)));
+    final var health = breaker.getHealth();
+
+    assertThat(health.state()).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(health.untilHalfOpen()).isEqualTo(Duration.ofSeconds(20));
+    assertThat(health.trips()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldReportHalfOpenOnceBreakHasRunOutWithoutMovingCircuitOn() {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var halfOpened = new AtomicBoolean();
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .durationOfBreak(Duration.ofSeconds(30))
+      .onHalfOpen(() -> halfOpened.set(true))
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    clock.setInstant(instant.plus(Duration.ofSeconds(30)));
+    final var health = breaker.getHealth();
+
+    assertThat(health.state()).isEqualTo(CircuitBreakerState.HALF_OPEN);
+    assertThat(health.untilHalfOpen()).isZero();
+    assertThat(halfOpened).isFalse();
+  }
+
+  @Test
+  public void shouldReportSamplingWindowOfAdvancedBreaker() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var breaker = CircuitBreakerPolicy.advancedBuilder(0.5, Duration.ofSeconds(10), 10, Duration.ofSeconds(30))
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+
+    breaker.execute(() -> null);
+    breaker.execute(() -> null);
+    breaker.execute(() -> null);
+    clock.setInstant(instant.plus(Duration.ofSeconds(2)));
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var health = breaker.getHealth();
+
+    assertThat(health.successes()).isEqualTo(3);
+    assertThat(health.failures()).isEqualTo(1);
+    assertThat(health.failureRate()).isEqualTo(0.25);
+    assertThat(health.windowStartedAt()).isEqualTo(Instant.ofEpochMilli(instant.toEpochMilli()));
+  }
+
+  @Test
+  public void shouldNotReportOutcomesThatHaveAgedOutOfSamplingWindow() {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var breaker = CircuitBreakerPolicy.advancedBuilder(0.5, Duration.ofSeconds(10), 10, Duration.ofSeconds(30))
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    clock.setInstant(instant.plus(Duration.ofSeconds(10)));
+
+    assertThat(breaker.getHealth().total()).isZero();
+  }
+
+  @Test
+  public void shouldReportLastCallsOfSlidingWindowBreaker() throws Throwable {
+    final var breaker = CircuitBreakerPolicy.slidingWindowBuilder(0.5, 4, 4, Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .build();
+
+    for (var i = 0; i < 5; i++) {
+      breaker.execute(() -> null);
+    }
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var health = breaker.getHealth();
+
+    assertThat(health.successes()).isEqualTo(3);
+    assertThat(health.failures()).isEqualTo(1);
+    assertThat(health.windowStartedAt()).isNull();
+  }
+
+  @Test
+  public void shouldReportHealthWhileOutcomesAreRecordedConcurrently() throws InterruptedException {
+    final var breaker = CircuitBreakerPolicy.advancedBuilder(0.5, Duration.ofMinutes(10), 1_000_000,
+        Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .build();
+    final var start = new CountDownLatch(1);
+    final var threads = new ArrayList<Thread>();
+    for (var i = 0; i < 4; i++) {
+      final var thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        for (var j = 0; j < 10_000; j++) {
+          catchThrowable(() -> breaker.execute(() -> null));
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.countDown();
+    var previousTotal = 0;
+    for (var i = 0; i < 1_000; i++) {
+      final var total = breaker.getHealth().total();
+      assertThat(total).isBetween(previousTotal, 40_000);
+      previousTotal = total;
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(breaker.getHealth().successes()).isEqualTo(40_000);
+  }
+}
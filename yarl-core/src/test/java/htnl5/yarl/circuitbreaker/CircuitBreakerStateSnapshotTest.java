@@ -0,0 +1,269 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.helpers.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+import static htnl5.yarl.helpers.PolicyUtils.raiseException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class CircuitBreakerStateSnapshotTest {
+  @TempDir
+  private Path directory;
+
+  @Test
+  public void shouldRestoreOpenCircuit() throws IOException {
+    final var file = directory.resolve("circuit.state");
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .handle(ArithmeticException.class)
+      .build();
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.saveState(file);
+
+    final var restored = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .handle(ArithmeticException.class)
+      .build();
+    restored.restoreState(file);
+    final var throwable = catchThrowable(() -> restored.execute(() -> null));
+
+    assertThat(restored.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(throwable).isInstanceOf(BrokenCircuitException.class)
+      .hasCauseInstanceOf(RestoredOutcomeException.class)
+      .cause().hasMessageContaining("ArithmeticException");
+  }
+
+  @Test
+  public void shouldRestoreOpenCircuitAsHalfOpenWhenBreakHasRunOutSinceSaved() throws IOException {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var file = directory.resolve("circuit.state");
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .durationOfBreak(Duration.ofSeconds(30))
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.saveState(file);
+
+    clock.setInstant(instant.plus(Duration.ofSeconds(30)));
+    final var restored = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .durationOfBreak(Duration.ofSeconds(30))
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+    restored.restoreState(file);
+
+    assertThat(restored.getState()).isEqualTo(CircuitBreakerState.HALF_OPEN);
+  }
+
+  @Test
+  public void shouldRestoreConsecutiveFailureCount() throws IOException {
+    final var file = directory.resolve("circuit.state");
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(2)
+      .handle(ArithmeticException.class)
+      .build();
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.saveState(file);
+
+    final var restored = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(2)
+      .handle(ArithmeticException.class)
+      .build();
+    restored.restoreState(file);
+    final var state = restored.getState();
+    catchThrowable(() -> raiseException(restored, ArithmeticException.class));
+
+    assertThat(state).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(restored.getState()).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  @Test
+  public void shouldRestoreIsolatedCircuit() throws IOException {
+    final var file = directory.resolve("circuit.state");
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .build();
+    breaker.isolate();
+    breaker.saveState(file);
+
+    final var restored = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .build();
+    restored.restoreState(file);
+    final var throwable = catchThrowable(() -> restored.execute(() -> null));
+
+    assertThat(restored.getState()).isEqualTo(CircuitBreakerState.ISOLATED);
+    assertThat(throwable).isInstanceOf(IsolatedCircuitBreakerException.class);
+  }
+
+  @Test
+  public void shouldRestoreHealthWindowsOfAdvancedCircuitBreaker() throws IOException {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var file = directory.resolve("circuit.state");
+    final var breaker = CircuitBreakerPolicy.advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+    for (var i = 0; i < 3; i++) {
+      catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    }
+    breaker.saveState(file);
+
+    clock.setInstant(instant.plus(Duration.ofSeconds(5)));
+    final var restored = CircuitBreakerPolicy.advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+    restored.restoreState(file);
+    catchThrowable(() -> raiseException(restored, ArithmeticException.class));
+
+    assertThat(restored.getState()).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  @Test
+  public void shouldDropHealthWindowsOfAdvancedCircuitBreakerThatHaveAgedOutSinceSaved() throws IOException {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var file = directory.resolve("circuit.state");
+    final var breaker = CircuitBreakerPolicy.advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+    for (var i = 0; i < 3; i++) {
+      catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    }
+    breaker.saveState(file);
+
+    clock.setInstant(instant.plus(Duration.ofSeconds(10)));
+    final var restored = CircuitBreakerPolicy.advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+    restored.restoreState(file);
+    catchThrowable(() -> raiseException(restored, ArithmeticException.class));
+
+    assertThat(restored.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldRestoreOutcomesOfSlidingWindowCircuitBreaker() throws Throwable {
+    final var file = directory.resolve("circuit.state");
+    final var breaker = CircuitBreakerPolicy.slidingWindowBuilder(0.5, 100, 4, Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .build();
+    for (var i = 0; i < 34; i++) {
+      breaker.execute(() -> null);
+    }
+    for (var i = 0; i < 33; i++) {
+      catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    }
+    breaker.saveState(file);
+
+    final var restored = CircuitBreakerPolicy.slidingWindowBuilder(0.5, 100, 4, Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .build();
+    restored.restoreState(file);
+    final var state = restored.getState();
+    catchThrowable(() -> raiseException(restored, ArithmeticException.class));
+
+    assertThat(state).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(restored.getState()).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  @Test
+  public void shouldThrowWhenRestoringStateOfDifferentKindOfCircuitBreaker() throws IOException {
+    final var file = directory.resolve("circuit.state");
+    CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .build()
+      .saveState(file);
+    final var breaker = CircuitBreakerPolicy.advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .build();
+
+    final var throwable = catchThrowable(() -> breaker.restoreState(file));
+
+    assertThat(throwable).isInstanceOf(IOException.class)
+      .hasMessage("The snapshot was taken of a different kind of circuit breaker.");
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldThrowWhenRestoringFromFileThatIsNotSnapshot() throws IOException {
+    final var file = Files.writeString(directory.resolve("circuit.state"), "not a snapshot");
+    final var breaker = CircuitBreakerPolicy.builder()
+      .handle(ArithmeticException.class)
+      .build();
+
+    final var throwable = catchThrowable(() -> breaker.restoreState(file));
+
+    assertThat(throwable).isInstanceOf(IOException.class)
+      .hasMessage("Not a circuit breaker snapshot.");
+  }
+
+  @Test
+  public void shouldLeaveStateAndHealthUnchangedWhenRestoringTruncatedSnapshot() throws Throwable {
+    final var file = directory.resolve("circuit.state");
+    final var saved = CircuitBreakerPolicy.advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .build();
+    for (var i = 0; i < 3; i++) {
+      saved.execute(() -> null);
+    }
+    saved.saveState(file);
+    final var bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+    final var breaker = CircuitBreakerPolicy.advancedBuilder(0.5, Duration.ofSeconds(10), 4, Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .build();
+    for (var i = 0; i < 4; i++) {
+      catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    }
+
+    final var throwable = catchThrowable(() -> breaker.restoreState(file));
+
+    assertThat(throwable).isInstanceOf(IOException.class);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(breaker.getHealth().successes()).isZero();
+    assertThat(breaker.getHealth().failures()).isEqualTo(4);
+  }
+
+  @Test
+  public void shouldReplaceSavedState() throws IOException {
+    final var file = directory.resolve("circuit.state");
+    final var breaker = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .handle(ArithmeticException.class)
+      .build();
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.saveState(file);
+    breaker.reset();
+    breaker.saveState(file);
+
+    final var restored = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .handle(ArithmeticException.class)
+      .build();
+    restored.restoreState(file);
+
+    assertThat(restored.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+    try (final var files = Files.list(directory)) {
+      assertThat(files).containsExactly(file);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package htnl5.yarl.circuitbreaker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OutcomeRingTest {
+  @Test
+  public void shouldOnlyCountTheLastWindowSizeOutcomesAfterTheRingHasWrappedAcrossWords() {
+    final var ring = new OutcomeRing(100);
+
+    for (var i = 0; i < 350; i++) {
+      ring.record(i % 3 == 0);
+    }
+
+    // Calls 250 to 349; every third one failed.
+    assertThat(ring.getSize()).isEqualTo(100);
+    assertThat(ring.getFailures()).isEqualTo(33);
+  }
+
+  @Test
+  public void shouldReplaceOverwrittenFailureWithSuccess() {
+    final var ring = new OutcomeRing(2);
+
+    ring.record(true);
+    ring.record(true);
+    ring.record(false);
+    final var failures1 = ring.getFailures();
+    ring.record(false);
+    final var failures2 = ring.getFailures();
+
+    assertThat(failures1).isEqualTo(1);
+    assertThat(failures2).isEqualTo(0);
+    assertThat(ring.getSize()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldForgetAllOutcomesOnReset() {
+    final var ring = new OutcomeRing(64);
+    for (var i = 0; i < 64; i++) {
+      ring.record(true);
+    }
+
+    ring.reset();
+    ring.record(false);
+
+    assertThat(ring.getSize()).isEqualTo(1);
+    assertThat(ring.getFailures()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,100 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.helpers.MutableClock;
+import htnl5.yarl.utilities.Ticker;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RollingHealthMetricsTest {
+  @Test
+  public void shouldOnlyCountWindowsWithinSamplingDurationAfterTheRingHasWrappedAround() {
+    final var start = Instant.now();
+    final var clock = new MutableClock(start, ZoneId.systemDefault());
+    final var metrics = new RollingHealthMetrics(Duration.ofSeconds(10), Ticker.of(clock), 10);
+
+    for (var second = 0; second < 35; second++) {
+      clock.setInstant(start.plusSeconds(second));
+      metrics.incrementSuccess();
+      if (second % 2 == 0) metrics.incrementFailure();
+    }
+    final var healthCount = metrics.getHealthCount();
+
+    assertThat(healthCount.getSuccesses()).isEqualTo(10);
+    assertThat(healthCount.getFailures()).isEqualTo(5);
+    assertThat(healthCount.getStartedAt()).isEqualTo(start.plusSeconds(25).toEpochMilli());
+  }
+
+  @Test
+  public void shouldExpireAllWindowsWhenNothingIsRecordedForSamplingDuration() {
+    final var start = Instant.now();
+    final var clock = new MutableClock(start, ZoneId.systemDefault());
+    final var metrics = new RollingHealthMetrics(Duration.ofSeconds(10), Ticker.of(clock), 10);
+    metrics.incrementFailure();
+    metrics.incrementSuccess();
+
+    clock.setInstant(start.plusSeconds(10));
+    final var healthCount = metrics.getHealthCount();
+
+    assertThat(healthCount.getTotal()).isZero();
+    assertThat(healthCount.getStartedAt()).isEqualTo(start.plusSeconds(10).toEpochMilli());
+  }
+
+  @Test
+  public void shouldForgetAllWindowsOnReset() {
+    final var clock = new MutableClock(Instant.now(), ZoneId.systemDefault());
+    final var metrics = new RollingHealthMetrics(Duration.ofSeconds(10), Ticker.of(clock), 10);
+    metrics.incrementFailure();
+    metrics.incrementSuccess();
+
+    metrics.reset();
+
+    assertThat(metrics.getHealthCount().getTotal()).isZero();
+  }
+
+  @Test
+  public void shouldExpireSlowCallsWithTheirWindow() {
+    final var start = Instant.now();
+    final var clock = new MutableClock(start, ZoneId.systemDefault());
+    final var metrics = new RollingHealthMetrics(Duration.ofSeconds(10), Ticker.of(clock), 10);
+    metrics.incrementSuccess();
+    metrics.incrementSlowCall();
+
+    clock.setInstant(start.plusSeconds(5));
+    metrics.incrementFailure();
+    metrics.incrementSlowCall();
+    final var slowCalls1 = metrics.getHealthCount().getSlowCalls();
+    clock.setInstant(start.plusSeconds(10));
+    final var slowCalls2 = metrics.getHealthCount().getSlowCalls();
+
+    assertThat(slowCalls1).isEqualTo(2);
+    assertThat(slowCalls2).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldDropWindowsThatHaveAgedOutWhenRestored() throws IOException {
+    final var start = Instant.now();
+    final var clock = new MutableClock(start, ZoneId.systemDefault());
+    final var metrics = new RollingHealthMetrics(Duration.ofSeconds(10), Ticker.of(clock), 10);
+    for (var second = 0; second < 10; second++) {
+      clock.setInstant(start.plusSeconds(second));
+      metrics.incrementFailure();
+    }
+    final var bytes = new ByteArrayOutputStream();
+    metrics.writeTo(new DataOutputStream(bytes));
+
+    clock.setInstant(start.plusSeconds(15));
+    final var restored = new RollingHealthMetrics(Duration.ofSeconds(10), Ticker.of(clock), 10);
+    restored.restore(IHealthMetrics.readWindows(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))),
+      6_000L);
+    final var healthCount = restored.getHealthCount();
+
+    assertThat(healthCount.getFailures()).isEqualTo(4);
+    assertThat(healthCount.getStartedAt()).isEqualTo(start.plusSeconds(6).toEpochMilli());
+  }
+}
@@ -0,0 +1,370 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.helpers.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static htnl5.yarl.helpers.PolicyUtils.raiseException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+// Each breaker maps the file on its own, the same as breakers in separate processes would.
+public class SharedCircuitStateTest {
+  @TempDir
+  private Path directory;
+
+  @Test
+  public void shouldThrowWhenSharedStateFileIsNull() {
+    final var throwable = catchThrowable(() -> CircuitBreakerPolicy.builder().sharedStateFile(null));
+
+    assertThat(throwable).isInstanceOf(NullPointerException.class)
+      .hasMessage("sharedStateFile must not be null.");
+  }
+
+  @Test
+  public void shouldStartClosedWithNewSharedStateFile() {
+    final var breaker = CircuitBreakerPolicy.builder()
+      .sharedStateFile(directory.resolve("circuit"))
+      .handle(ArithmeticException.class)
+      .build();
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldOpenCircuitOfBreakerSharingStateFile() {
+    final var file = directory.resolve("circuit");
+    final var breaker1 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(2)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+    final var breaker2 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(2)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+    final var actionExecutedWhenBroken = new AtomicBoolean();
+
+    catchThrowable(() -> raiseException(breaker1, ArithmeticException.class));
+    catchThrowable(() -> raiseException(breaker1, ArithmeticException.class));
+    final var state = breaker2.getState();
+    final var throwable = catchThrowable(() -> breaker2.execute(() -> {
+      actionExecutedWhenBroken.set(true);
+      return null;
+    }));
+
+    assertThat(state).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(throwable).isInstanceOf(BrokenCircuitException.class);
+    assertThat(actionExecutedWhenBroken).isFalse();
+  }
+
+  @Test
+  public void shouldCountConsecutiveFailuresAcrossBreakersSharingStateFile() {
+    final var file = directory.resolve("circuit");
+    final var breaker1 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(2)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+    final var breaker2 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(2)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker1, ArithmeticException.class));
+    final var state = breaker1.getState();
+    catchThrowable(() -> raiseException(breaker2, ArithmeticException.class));
+
+    assertThat(state).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(breaker1.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(breaker2.getState()).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  @Test
+  public void shouldResetConsecutiveFailuresAcrossBreakersSharingStateFileOnSuccess() throws Throwable {
+    final var file = directory.resolve("circuit");
+    final var breaker1 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(2)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+    final var breaker2 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(2)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker1, ArithmeticException.class));
+    breaker2.execute(() -> null);
+    catchThrowable(() -> raiseException(breaker1, ArithmeticException.class));
+
+    assertThat(breaker1.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(breaker2.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldKeepSharedFailuresRecordedSinceCloseWhenAnotherBreakerAdoptsIt() {
+    final var file = directory.resolve("circuit");
+    final var breaker1 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(3)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+    final var breaker2 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(3)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+
+    for (var i = 0; i < 3; i++) {
+      catchThrowable(() -> raiseException(breaker1, ArithmeticException.class));
+    }
+    breaker2.reset();
+    catchThrowable(() -> raiseException(breaker2, ArithmeticException.class));
+    catchThrowable(() -> raiseException(breaker2, ArithmeticException.class));
+    final var adoptedState = breaker1.getState();
+    catchThrowable(() -> raiseException(breaker2, ArithmeticException.class));
+
+    assertThat(adoptedState).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(breaker1.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(breaker2.getState()).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  @Test
+  public void shouldResetSharedFailuresWhenClosedBreakerIsReset() {
+    final var file = directory.resolve("circuit");
+    final var breaker1 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(2)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+    final var breaker2 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(2)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker1, ArithmeticException.class));
+    breaker1.reset();
+    catchThrowable(() -> raiseException(breaker2, ArithmeticException.class));
+
+    assertThat(breaker2.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldLetOnlyOneBreakerSharingStateFileProbeWhenHalfOpen() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var file = directory.resolve("circuit");
+    final var breaker1 = CircuitBreakerPolicy.builder()
+      .durationOfBreak(Duration.ofSeconds(30))
+      .sharedStateFile(file)
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+    final var breaker2 = CircuitBreakerPolicy.builder()
+      .durationOfBreak(Duration.ofSeconds(30))
+      .sharedStateFile(file)
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+    final var actionExecutedWhileProbing = new AtomicBoolean();
+
+    catchThrowable(() -> raiseException(breaker1, ArithmeticException.class));
+    clock.setInstant(instant.plus(Duration.ofSeconds(30)));
+    final var state1 = breaker1.getState();
+    final var state2 = breaker2.getState();
+    final var throwable = new Throwable[1];
+    breaker1.execute(() -> {
+      throwable[0] = catchThrowable(() -> breaker2.execute(() -> {
+        actionExecutedWhileProbing.set(true);
+        return null;
+      }));
+      return null;
+    });
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.HALF_OPEN);
+    assertThat(state2).isEqualTo(CircuitBreakerState.HALF_OPEN);
+    assertThat(throwable[0]).isInstanceOf(BrokenCircuitException.class);
+    assertThat(actionExecutedWhileProbing).isFalse();
+    assertThat(breaker1.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(breaker2.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldOpenCircuitOfBreakerSharingStateFileWhenProbeFails() {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var file = directory.resolve("circuit");
+    final var breaker1 = CircuitBreakerPolicy.builder()
+      .durationOfBreak(Duration.ofSeconds(30))
+      .sharedStateFile(file)
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+    final var breaker2 = CircuitBreakerPolicy.builder()
+      .durationOfBreak(Duration.ofSeconds(30))
+      .sharedStateFile(file)
+      .clock(clock)
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker1, ArithmeticException.class));
+    clock.setInstant(instant.plus(Duration.ofSeconds(30)));
+    catchThrowable(() -> raiseException(breaker2, ArithmeticException.class));
+
+    assertThat(breaker1.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(breaker2.getState()).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  @Test
+  public void shouldNotShareManualIsolation() {
+    final var file = directory.resolve("circuit");
+    final var breaker1 = CircuitBreakerPolicy.builder()
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+    final var breaker2 = CircuitBreakerPolicy.builder()
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+
+    breaker1.isolate();
+
+    assertThat(breaker1.getState()).isEqualTo(CircuitBreakerState.ISOLATED);
+    assertThat(breaker2.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldCountEveryFailureRecordedConcurrentlyByBreakersSharingStateFile() throws InterruptedException {
+    final var file = directory.resolve("circuit");
+    final var start = new CountDownLatch(1);
+    final var breakers = new ArrayList<CircuitBreakerPolicy<Object, CircuitBreakerPolicyBuilder<Object>>>();
+    final var threads = new ArrayList<Thread>();
+    for (var i = 0; i < 8; i++) {
+      final var breaker = CircuitBreakerPolicy.builder()
+        .failuresAllowedBeforeBreaking(8_000)
+        .sharedStateFile(file)
+        .handle(ArithmeticException.class)
+        .build();
+      breakers.add(breaker);
+      final var thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        for (var j = 0; j < 1_000; j++) {
+          catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.countDown();
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(breakers).allSatisfy(breaker -> assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.OPEN));
+  }
+
+  @Test
+  public void shouldNeverTearStateWhenMappingsBreakAndCloseConcurrently() throws InterruptedException {
+    final var file = directory.resolve("circuit");
+    final var state1 = SharedCircuitState.open(file);
+    final var state2 = SharedCircuitState.open(file);
+    final var observer = SharedCircuitState.open(file);
+    final var start = new CountDownLatch(1);
+    final var done = new CountDownLatch(2);
+    final var tornValue = new AtomicLong();
+    final var thread1 = startBreakingAndClosing(state1, 1_000L, start, done);
+    final var thread2 = startBreakingAndClosing(state2, 2_000L, start, done);
+
+    start.countDown();
+    while (done.getCount() > 0) {
+      final var value = observer.getBlockedUntil();
+      if (value != 0L && value != 1_000L && value != 2_000L) tornValue.set(value);
+    }
+    thread1.join();
+    thread2.join();
+
+    assertThat(tornValue).hasValue(0L);
+    assertThat(state1.getBlockedUntil()).isZero();
+    assertThat(state2.getGeneration()).isEqualTo(state1.getGeneration());
+    assertThat(state1.claimProbeRound(0L, 3_000L)).isFalse();
+    assertThat(state2.getBlockedUntil()).isZero();
+  }
+
+  @Test
+  public void shouldAgreeOnStateAfterBreakersSharingStateFileBreakAndCloseConcurrently() throws InterruptedException {
+    final var file = directory.resolve("circuit");
+    final var breaker1 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+    final var breaker2 = CircuitBreakerPolicy.builder()
+      .failuresAllowedBeforeBreaking(1)
+      .sharedStateFile(file)
+      .handle(ArithmeticException.class)
+      .build();
+    final var breaking = new Thread(() -> {
+      for (var i = 0; i < 2_000; i++) {
+        breaker1.reset();
+        catchThrowable(() -> raiseException(breaker1, ArithmeticException.class));
+      }
+    });
+    final var closing = new Thread(() -> {
+      for (var i = 0; i < 2_000; i++) {
+        breaker2.reset();
+        catchThrowable(() -> raiseException(breaker2, ArithmeticException.class));
+        breaker2.reset();
+      }
+    });
+
+    breaking.start();
+    closing.start();
+    breaking.join();
+    closing.join();
+    breaker1.reset();
+    final var state1 = breaker1.getState();
+    final var state2 = breaker2.getState();
+    catchThrowable(() -> raiseException(breaker2, ArithmeticException.class));
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(state2).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(breaker1.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(breaker2.getState()).isEqualTo(CircuitBreakerState.OPEN);
+  }
+
+  private static Thread startBreakingAndClosing(final SharedCircuitState state, final long blockedUntil,
+                                                final CountDownLatch start, final CountDownLatch done) {
+    final var thread = new Thread(() -> {
+      try {
+        start.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      for (var i = 0; i < 10_000; i++) {
+        state.publishBreak(blockedUntil);
+        state.publishClose();
+      }
+      done.countDown();
+    });
+    thread.start();
+    return thread;
+  }
+}
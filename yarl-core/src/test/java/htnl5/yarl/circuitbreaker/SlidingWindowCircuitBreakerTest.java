@@ -0,0 +1,132 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.helpers.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static htnl5.yarl.helpers.PolicyUtils.raiseException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class SlidingWindowCircuitBreakerTest {
+  //<editor-fold desc="configuration tests">
+  @Test
+  public void shouldThrowWhenWindowSizeIsZero() {
+    final var throwable = catchThrowable(() -> CircuitBreakerPolicy.slidingWindowBuilder(0.5, 0, 1,
+      Duration.ofSeconds(30)));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("windowSize must be greater than zero.");
+  }
+
+  @Test
+  public void shouldThrowWhenMinimumThroughputIsGreaterThanWindowSize() {
+    final var throwable = catchThrowable(() -> CircuitBreakerPolicy.slidingWindowBuilder(0.5, 10, 11,
+      Duration.ofSeconds(30)));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("minimumThroughput must be less than or equal to windowSize.");
+  }
+
+  @Test
+  public void shouldThrowWhenFailureThresholdIsGreaterThanOne() {
+    final var throwable = catchThrowable(() -> CircuitBreakerPolicy.slidingWindowBuilder(1.1, 10, 5,
+      Duration.ofSeconds(30)));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("failureThreshold must me less than or equal to one.");
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="failure rate tests">
+  @Test
+  public void shouldNotOpenCircuitBeforeMinimumThroughputIsReached() {
+    final var breaker = CircuitBreakerPolicy.slidingWindowBuilder(0.5, 10, 4, Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .build();
+
+    for (var i = 0; i < 3; i++) {
+      catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    }
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldOpenCircuitWhenFailureRateOfLastCallsReachesThresholdRegardlessOfTimeBetweenCalls() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var breaker = CircuitBreakerPolicy.slidingWindowBuilder(0.5, 4, 4, Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .clock(clock)
+      .build();
+    final var actionExecutedWhenBroken = new AtomicBoolean();
+
+    breaker.execute(() -> null);
+    clock.setInstant(instant.plus(Duration.ofDays(1)));
+    breaker.execute(() -> null);
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var state1 = breaker.getState();
+    clock.setInstant(instant.plus(Duration.ofDays(2)));
+    final var throwable2 = catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var state2 = breaker.getState();
+    final var throwable3 = catchThrowable(() -> breaker.execute(() -> {
+      actionExecutedWhenBroken.set(true);
+      return null;
+    }));
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(throwable2).isInstanceOf(ArithmeticException.class);
+    assertThat(state2).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(throwable3).isInstanceOf(BrokenCircuitException.class)
+      .hasCauseInstanceOf(ArithmeticException.class);
+    assertThat(actionExecutedWhenBroken.get()).isFalse();
+  }
+
+  @Test
+  public void shouldNotOpenCircuitWhenOldFailuresHaveSlidOutOfTheWindow() throws Throwable {
+    final var breaker = CircuitBreakerPolicy.slidingWindowBuilder(0.5, 4, 4, Duration.ofSeconds(30))
+      .handle(ArithmeticException.class)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    breaker.execute(() -> null);
+    breaker.execute(() -> null);
+    breaker.execute(() -> null);
+    breaker.execute(() -> null);
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldCloseCircuitAndForgetOutcomesWhenHalfOpenProbeSucceeds() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var durationOfBreak = Duration.ofSeconds(30);
+    final var breaker = CircuitBreakerPolicy.slidingWindowBuilder(0.5, 2, 2, durationOfBreak)
+      .handle(ArithmeticException.class)
+      .clock(clock)
+      .build();
+
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var state1 = breaker.getState();
+    clock.setInstant(instant.plus(durationOfBreak));
+    final var state2 = breaker.getState();
+    breaker.execute(() -> null);
+    final var state3 = breaker.getState();
+    catchThrowable(() -> raiseException(breaker, ArithmeticException.class));
+    final var state4 = breaker.getState();
+
+    assertThat(state1).isEqualTo(CircuitBreakerState.OPEN);
+    assertThat(state2).isEqualTo(CircuitBreakerState.HALF_OPEN);
+    assertThat(state3).isEqualTo(CircuitBreakerState.CLOSED);
+    assertThat(state4).isEqualTo(CircuitBreakerState.OPEN);
+  }
+  //</editor-fold>
+}
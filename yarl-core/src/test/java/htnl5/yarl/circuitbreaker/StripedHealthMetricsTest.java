@@ -0,0 +1,77 @@
+package htnl5.yarl.circuitbreaker;
+
+import htnl5.yarl.helpers.MutableClock;
+import htnl5.yarl.utilities.Ticker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StripedHealthMetricsTest {
+  @Test
+  public void shouldCountEveryOutcomeRecordedConcurrently() throws InterruptedException {
+    final var clock = new MutableClock(Instant.now(), ZoneId.systemDefault());
+    final var metrics = new StripedHealthMetrics(Duration.ofSeconds(10), Ticker.of(clock), 10);
+    final var start = new CountDownLatch(1);
+    final var threads = new ArrayList<Thread>();
+    for (var i = 0; i < 8; i++) {
+      final var thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        for (var j = 0; j < 10_000; j++) {
+          metrics.incrementSuccess();
+          if (j % 4 == 0) metrics.incrementFailure();
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.countDown();
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    final var healthCount = metrics.getHealthCount();
+
+    assertThat(healthCount.getSuccesses()).isEqualTo(80_000);
+    assertThat(healthCount.getFailures()).isEqualTo(20_000);
+  }
+
+  @Test
+  public void shouldOnlyCountWindowsWithinSamplingDuration() {
+    final var start = Instant.ofEpochMilli(1_000_000L);
+    final var clock = new MutableClock(start, ZoneId.systemDefault());
+    final var metrics = new StripedHealthMetrics(Duration.ofSeconds(10), Ticker.of(clock), 10);
+
+    for (var second = 0; second < 35; second++) {
+      clock.setInstant(start.plusSeconds(second));
+      metrics.incrementSuccess();
+      if (second % 2 == 0) metrics.incrementFailure();
+    }
+    final var healthCount = metrics.getHealthCount();
+
+    assertThat(healthCount.getSuccesses()).isEqualTo(10);
+    assertThat(healthCount.getFailures()).isEqualTo(5);
+    assertThat(healthCount.getStartedAt()).isEqualTo(start.plusSeconds(25).toEpochMilli());
+  }
+
+  @Test
+  public void shouldForgetAllWindowsOnReset() {
+    final var clock = new MutableClock(Instant.now(), ZoneId.systemDefault());
+    final var metrics = new StripedHealthMetrics(Duration.ofSeconds(10), Ticker.of(clock), 10);
+    metrics.incrementFailure();
+    metrics.incrementSuccess();
+
+    metrics.reset();
+
+    assertThat(metrics.getHealthCount().getTotal()).isZero();
+  }
+}
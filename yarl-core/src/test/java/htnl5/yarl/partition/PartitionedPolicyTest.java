@@ -0,0 +1,166 @@
+package htnl5.yarl.partition;
+
+import htnl5.yarl.Context;
+import htnl5.yarl.circuitbreaker.CircuitBreakerPolicy;
+import htnl5.yarl.circuitbreaker.CircuitBreakerState;
+import htnl5.yarl.helpers.MutableClock;
+import htnl5.yarl.noop.NoOpPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class PartitionedPolicyTest {
+  //<editor-fold desc="configuration tests">
+  @Test
+  public void shouldThrowWhenPolicyFactoryIsNull() {
+    final var throwable = catchThrowable(() -> PartitionedPolicy.builder(null));
+
+    assertThat(throwable).isInstanceOf(NullPointerException.class)
+      .hasMessage("policyFactory must not be null.");
+  }
+
+  @Test
+  public void shouldThrowWhenMaxPartitionsIsZero() {
+    final var throwable = catchThrowable(() -> PartitionedPolicy.builder((String key) -> NoOpPolicy.build())
+      .maxPartitions(0));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("maxPartitions must be greater than zero.");
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="partitioning tests">
+  @Test
+  public void shouldKeepCircuitStateSeparatePerOperationKey() throws Throwable {
+    final var policy = PartitionedPolicy.builder((String key) -> CircuitBreakerPolicy.builder()
+        .handle(ArithmeticException.class)
+        .build())
+      .build();
+
+    catchThrowable(() -> policy.execute(new Context("host-a"), ctx -> {
+      throw new ArithmeticException();
+    }));
+    final var result = policy.execute(new Context("host-b"), ctx -> 1);
+
+    assertThat(result).isEqualTo(1);
+    assertThat(policy.getPartition("host-a").map(CircuitBreakerPolicy::getState))
+      .contains(CircuitBreakerState.OPEN);
+    assertThat(policy.getPartition("host-b").map(CircuitBreakerPolicy::getState))
+      .contains(CircuitBreakerState.CLOSED);
+  }
+
+  @Test
+  public void shouldCreateEachPartitionOnceAndPassItsKeyToTheFactory() throws Throwable {
+    final var keys = new ArrayList<String>();
+    final var policy = PartitionedPolicy.builder((String key) -> {
+        keys.add(key);
+        return NoOpPolicy.<Integer>build();
+      })
+      .partitionByContextEntry("tenant")
+      .build();
+
+    policy.execute(Map.of("tenant", "t1"), ctx -> 1);
+    policy.execute(Map.of("tenant", "t1"), ctx -> 1);
+    policy.execute(Map.of("tenant", "t2"), ctx -> 1);
+    policy.execute(() -> 1);
+
+    assertThat(keys).containsExactly("t1", "t2", "");
+    assertThat(policy.getPartitionCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldSetThePartitionPolicyKeyOnContextDuringExecution() throws Throwable {
+    final var policy = PartitionedPolicy.builder((String key) -> NoOpPolicy.<String>build("inner-" + key))
+      .build();
+
+    final var policyKey = policy.execute(new Context("a"), ctx -> ctx.getPolicyKey().orElse(null));
+
+    assertThat(policyKey).isEqualTo("inner-a");
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="eviction tests">
+  @Test
+  public void shouldEvictLeastRecentlyUsedPartitionsWhenBoundIsExceeded() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var policy = PartitionedPolicy.builder((String key) -> NoOpPolicy.<Integer>build())
+      .maxPartitions(10)
+      .clock(clock)
+      .build();
+
+    for (var i = 0; i < 10; i++) {
+      clock.setInstant(instant.plusMillis(i));
+      policy.execute(new Context("k" + i), ctx -> 1);
+    }
+    clock.setInstant(instant.plusMillis(10));
+    policy.execute(new Context("k0"), ctx -> 1);
+    clock.setInstant(instant.plusMillis(11));
+    policy.execute(new Context("k10"), ctx -> 1);
+
+    assertThat(policy.getPartitionCount()).isEqualTo(9);
+    assertThat(policy.getPartition("k0")).isPresent();
+    assertThat(policy.getPartition("k10")).isPresent();
+    assertThat(policy.getPartition("k1")).isEmpty();
+    assertThat(policy.getPartition("k2")).isEmpty();
+  }
+
+  @Test
+  public void shouldEvictIdlePartitions() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var created = new AtomicInteger();
+    final var policy = PartitionedPolicy.builder((String key) -> {
+        created.incrementAndGet();
+        return NoOpPolicy.<Integer>build();
+      })
+      .idleTimeout(Duration.ofMinutes(1))
+      .clock(clock)
+      .build();
+
+    policy.execute(new Context("a"), ctx -> 1);
+    policy.execute(new Context("b"), ctx -> 1);
+    clock.setInstant(instant.plusSeconds(30));
+    policy.execute(new Context("b"), ctx -> 1);
+    clock.setInstant(instant.plusSeconds(60));
+    policy.evictIdlePartitions();
+    final var count = policy.getPartitionCount();
+    policy.execute(new Context("a"), ctx -> 1);
+
+    assertThat(count).isEqualTo(1);
+    assertThat(created.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldEvictIdlePartitionsAsCallsComeInWithoutReachingBound() throws Throwable {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var policy = PartitionedPolicy.builder((String key) -> NoOpPolicy.<Integer>build())
+      .maxPartitions(100)
+      .idleTimeout(Duration.ofMinutes(1))
+      .clock(clock)
+      .build();
+
+    policy.execute(new Context("a"), ctx -> 1);
+    policy.execute(new Context("b"), ctx -> 1);
+    clock.setInstant(instant.plusSeconds(30));
+    policy.execute(new Context("b"), ctx -> 1);
+    final var countBeforeTimeout = policy.getPartitionCount();
+    clock.setInstant(instant.plusSeconds(61));
+    policy.execute(new Context("b"), ctx -> 1);
+
+    assertThat(countBeforeTimeout).isEqualTo(2);
+    assertThat(policy.getPartitionCount()).isEqualTo(1);
+    assertThat(policy.getPartition("a")).isEmpty();
+    assertThat(policy.getPartition("b")).isPresent();
+  }
+  //</editor-fold>
+}
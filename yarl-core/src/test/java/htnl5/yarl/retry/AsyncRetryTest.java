@@ -3,6 +3,10 @@ package htnl5.yarl.retry;
 import htnl5.yarl.helpers.Result;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 
@@ -46,4 +50,81 @@ public class AsyncRetryTest {
     assertThat(throwable).isInstanceOf(NullPointerException.class)
       .hasMessageContaining("onRetry");
   }
+
+  @Test
+  public void shouldCompleteOnCallingThreadWhenActionIsAlreadyCompleteAndNotHandled() {
+    final var executor = new CountingExecutor();
+    final var policy = AsyncRetryPolicy.<Result>builder()
+      .handleResult(Result.FAULT)
+      .executor(executor)
+      .build();
+
+    final var future = policy.execute(() -> CompletableFuture.completedFuture(Result.GOOD));
+
+    assertThat(future).isCompletedWithValue(Result.GOOD);
+    assertThat(executor.executions).hasValue(0);
+  }
+
+  @Test
+  public void shouldRetryOnCallingThreadWhenActionIsAlreadyCompleteAndRetryNeedsNoSleepNorListener() {
+    final var executor = new CountingExecutor();
+    final var attempts = new AtomicInteger();
+    final var policy = AsyncRetryPolicy.<Result>builder()
+      .handleResult(Result.FAULT)
+      .executor(executor)
+      .build();
+
+    final var future = policy.execute(() -> CompletableFuture.completedFuture(
+      attempts.incrementAndGet() < 3 ? Result.FAULT : Result.GOOD));
+
+    assertThat(future).isCompletedWithValue(Result.GOOD);
+    assertThat(attempts).hasValue(3);
+    assertThat(executor.executions).hasValue(0);
+  }
+
+  @Test
+  public void shouldCallOnRetryOnExecutor() {
+    final var executor = new CountingExecutor();
+    final var retries = new AtomicInteger();
+    final var policy = AsyncRetryPolicy.<Result>builder()
+      .handleResult(Result.FAULT)
+      .onRetry(event -> retries.incrementAndGet())
+      .executor(executor)
+      .build();
+
+    final var future = policy.execute(() -> CompletableFuture.completedFuture(
+      retries.get() < 2 ? Result.FAULT : Result.GOOD));
+
+    assertThat(future).isCompletedWithValue(Result.GOOD);
+    assertThat(executor.executions).hasValue(2);
+  }
+
+  @Test
+  public void shouldRetryOnExecutorWhenActionCompletesLater() {
+    final var executor = new CountingExecutor();
+    final var attempts = new AtomicInteger();
+    final var pending = new CompletableFuture<Result>();
+    final var policy = AsyncRetryPolicy.<Result>builder()
+      .handleResult(Result.FAULT)
+      .executor(executor)
+      .build();
+
+    final var future = policy.execute(() -> attempts.incrementAndGet() == 1
+      ? pending
+      : CompletableFuture.completedFuture(Result.GOOD));
+    pending.complete(Result.FAULT);
+
+    assertThat(future).isCompletedWithValue(Result.GOOD);
+    assertThat(executor.executions).hasValue(1);
+  }
+
+  private static class CountingExecutor implements Executor {
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Override
+    public void execute(final Runnable command) {
+      executions.incrementAndGet();
+      command.run();
+    }
+  }
 }
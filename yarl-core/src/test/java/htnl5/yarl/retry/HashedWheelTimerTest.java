@@ -0,0 +1,276 @@
+package htnl5.yarl.retry;
+
+import htnl5.yarl.helpers.Result;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class HashedWheelTimerTest {
+  //<editor-fold desc="configuration tests">
+  @Test
+  public void shouldThrowWhenTickDurationIsNull() {
+    final var throwable = catchThrowable(() -> new HashedWheelTimer(null, 8));
+
+    assertThat(throwable).isInstanceOf(NullPointerException.class)
+      .hasMessage("tickDuration must not be null.");
+  }
+
+  @Test
+  public void shouldThrowWhenTickDurationIsZero() {
+    final var throwable = catchThrowable(() -> new HashedWheelTimer(Duration.ZERO, 8));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("tickDuration must be greater than zero.");
+  }
+
+  @Test
+  public void shouldThrowWhenWheelSizeIsZero() {
+    final var throwable = catchThrowable(() -> new HashedWheelTimer(Duration.ofMillis(1), 0));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("wheelSize must be greater than zero.");
+  }
+
+  @Test
+  public void shouldThrowWhenSleepSchedulerIsNull() {
+    final var throwable = catchThrowable(() -> AsyncRetryPolicy.<Result>builder().sleepScheduler(null));
+
+    assertThat(throwable).isInstanceOf(NullPointerException.class)
+      .hasMessage("sleepScheduler must not be null.");
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="scheduling tests">
+  @Test
+  public void shouldRunTaskOnceDurationHasPassed() throws InterruptedException {
+    try (final var timer = new HashedWheelTimer(Duration.ofMillis(1), 8)) {
+      final var ran = new CountDownLatch(1);
+      final var startedAt = System.nanoTime();
+
+      timer.schedule(Duration.ofMillis(50), ran::countDown);
+
+      assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(System.nanoTime() - startedAt).isGreaterThanOrEqualTo(Duration.ofMillis(50).toNanos());
+    }
+  }
+
+  @Test
+  public void shouldRunTaskDueAfterMoreThanOneTurnOfWheel() throws InterruptedException {
+    try (final var timer = new HashedWheelTimer(Duration.ofMillis(1), 4)) {
+      final var ran = new CountDownLatch(1);
+      final var startedAt = System.nanoTime();
+
+      timer.schedule(Duration.ofMillis(30), ran::countDown);
+
+      assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(System.nanoTime() - startedAt).isGreaterThanOrEqualTo(Duration.ofMillis(30).toNanos());
+    }
+  }
+
+  @Test
+  public void shouldRunTasksInOrderOfDeadlines() throws InterruptedException {
+    try (final var timer = new HashedWheelTimer(Duration.ofMillis(1), 8)) {
+      final var order = new CopyOnWriteArrayList<Integer>();
+      final var ran = new CountDownLatch(3);
+
+      timer.schedule(Duration.ofMillis(60), () -> {
+        order.add(3);
+        ran.countDown();
+      });
+      timer.schedule(Duration.ofMillis(5), () -> {
+        order.add(1);
+        ran.countDown();
+      });
+      timer.schedule(Duration.ofMillis(30), () -> {
+        order.add(2);
+        ran.countDown();
+      });
+
+      assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(order).containsExactly(1, 2, 3);
+    }
+  }
+
+  @Test
+  public void shouldNotRunCancelledTask() throws InterruptedException {
+    try (final var timer = new HashedWheelTimer(Duration.ofMillis(1), 8)) {
+      final var cancelledRan = new AtomicBoolean();
+      final var ran = new CountDownLatch(1);
+
+      final var sleep = timer.schedule(Duration.ofMillis(20), () -> cancelledRan.set(true));
+      final var cancelled = sleep.cancel();
+      timer.schedule(Duration.ofMillis(40), ran::countDown);
+
+      assertThat(cancelled).isTrue();
+      assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(cancelledRan).isFalse();
+      assertThat(sleep.cancel()).isFalse();
+    }
+  }
+
+  @Test
+  public void shouldKeepRunningTasksAfterTaskThrows() throws InterruptedException {
+    try (final var timer = new HashedWheelTimer(Duration.ofMillis(1), 8)) {
+      final var ran = new CountDownLatch(1);
+
+      timer.schedule(Duration.ZERO, () -> {
+        throw new IllegalStateException();
+      });
+      timer.schedule(Duration.ofMillis(10), ran::countDown);
+
+      assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+  }
+
+  @Test
+  public void shouldRunEveryTaskScheduledConcurrently() throws InterruptedException {
+    try (final var timer = new HashedWheelTimer(Duration.ofMillis(1), 64)) {
+      final var ran = new CountDownLatch(40_000);
+      final var threads = new Thread[4];
+      for (var i = 0; i < threads.length; i++) {
+        threads[i] = new Thread(() -> {
+          for (var j = 0; j < 10_000; j++) {
+            timer.schedule(Duration.ofMillis(j % 100), ran::countDown);
+          }
+        });
+        threads[i].start();
+      }
+
+      for (final var thread : threads) {
+        thread.join();
+      }
+
+      assertThat(ran.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="closing tests">
+  @Test
+  public void shouldStopThreadWhenClosed() {
+    final var timer = new HashedWheelTimer(Duration.ofMillis(1), 8);
+    timer.schedule(Duration.ZERO, () -> {
+    });
+    final var running = countTimerThreads();
+
+    timer.close();
+
+    assertThat(countTimerThreads()).isEqualTo(running - 1);
+  }
+
+  @Test
+  public void shouldRunPendingSleepsEarlyWhenClosed() {
+    final var ran = new AtomicBoolean();
+    final var timer = new HashedWheelTimer(Duration.ofMillis(1), 8);
+    final var sleep = timer.schedule(Duration.ofHours(1), () -> ran.set(true));
+
+    timer.close();
+
+    assertThat(ran).isTrue();
+    assertThat(sleep.cancel()).isFalse();
+  }
+
+  @Test
+  public void shouldThrowWhenSchedulingOnClosedTimer() {
+    final var timer = new HashedWheelTimer(Duration.ofMillis(1), 8);
+    timer.close();
+
+    final var throwable = catchThrowable(() -> timer.schedule(Duration.ZERO, () -> {
+    }));
+
+    assertThat(throwable).isInstanceOf(IllegalStateException.class)
+      .hasMessage("The timer has been closed.");
+  }
+
+  @Test
+  public void shouldIgnoreCloseOfSharedTimer() throws InterruptedException {
+    final var ran = new CountDownLatch(1);
+
+    HashedWheelTimer.SHARED.close();
+    SleepScheduler.shared().schedule(Duration.ZERO, ran::countDown);
+
+    assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="async retry tests">
+  @Test
+  public void shouldSleepBetweenAsyncRetriesWithGivenScheduler() {
+    final var sleeps = new CopyOnWriteArrayList<Duration>();
+    try (final var timer = new HashedWheelTimer(Duration.ofMillis(1), 8)) {
+      final var attempts = new AtomicInteger();
+      final var policy = AsyncRetryPolicy.<Result>builder()
+        .handleResult(Result.FAULT)
+        .sleepDurations(Duration.ofMillis(5), Duration.ofMillis(10))
+        .sleepScheduler((duration, task) -> {
+          sleeps.add(duration);
+          return timer.schedule(duration, task);
+        })
+        .build();
+
+      final var result = policy.execute(() -> CompletableFuture.completedFuture(
+        attempts.incrementAndGet() < 3 ? Result.FAULT : Result.GOOD)).join();
+
+      assertThat(result).isEqualTo(Result.GOOD);
+      assertThat(sleeps).containsExactly(Duration.ofMillis(5), Duration.ofMillis(10));
+    }
+  }
+
+  @Test
+  public void shouldCompleteAsyncRetrySleepingOnTimerWhenTimerIsClosed() throws Exception {
+    final var timer = new HashedWheelTimer(Duration.ofMillis(1), 8);
+    final var attempts = new AtomicInteger();
+    final var sleeping = new CountDownLatch(1);
+    final var policy = AsyncRetryPolicy.<Result>builder()
+      .handleResult(Result.FAULT)
+      .sleepDurations(Duration.ofHours(1))
+      .sleepScheduler((duration, task) -> {
+        final var sleep = timer.schedule(duration, task);
+        sleeping.countDown();
+        return sleep;
+      })
+      .build();
+
+    final var future = policy.execute(() -> CompletableFuture.completedFuture(
+      attempts.incrementAndGet() < 2 ? Result.FAULT : Result.GOOD));
+    assertThat(sleeping.await(5, TimeUnit.SECONDS)).isTrue();
+    timer.close();
+
+    assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(Result.GOOD);
+    assertThat(attempts).hasValue(2);
+  }
+
+  @Test
+  public void shouldCancelSleepWhenRetriesAreCancelled() {
+    final var cancelled = new AtomicBoolean();
+    final var policy = AsyncRetryPolicy.<Result>builder()
+      .handleResult(Result.FAULT)
+      .sleepDurations(Duration.ofHours(1))
+      .sleepScheduler((duration, task) -> () -> {
+        cancelled.set(true);
+        return true;
+      })
+      .build();
+
+    final var future = policy.execute(() -> CompletableFuture.completedFuture(Result.FAULT));
+    future.cancel(false);
+
+    assertThat(cancelled).isTrue();
+  }
+  //</editor-fold>
+
+  private static long countTimerThreads() {
+    return Thread.getAllStackTraces().keySet().stream()
+      .filter(thread -> thread.getName().equals("yarl-hashed-wheel-timer") && thread.isAlive())
+      .count();
+  }
+}
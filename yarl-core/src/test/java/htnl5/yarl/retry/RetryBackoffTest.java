@@ -0,0 +1,276 @@
+package htnl5.yarl.retry;
+
+import htnl5.yarl.helpers.Result;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static htnl5.yarl.helpers.PolicyUtils.raiseExceptions;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class RetryBackoffTest {
+  //<editor-fold desc="configuration tests">
+  @Test
+  public void shouldThrowWhenConstantBackoffDelayIsNull() {
+    final var throwable = catchThrowable(() -> RetryPolicy.builder().constantBackoff(null));
+
+    assertThat(throwable).isInstanceOf(NullPointerException.class)
+      .hasMessage("delay must not be null.");
+  }
+
+  @Test
+  public void shouldThrowWhenConstantBackoffDelayIsNegative() {
+    final var throwable = catchThrowable(() -> RetryPolicy.builder().constantBackoff(Duration.ofMillis(-1)));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("delay must be greater than or equal to zero.");
+  }
+
+  @Test
+  public void shouldThrowWhenExponentialBackoffInitialDelayIsZero() {
+    final var throwable = catchThrowable(() -> RetryPolicy.builder()
+      .exponentialBackoff(Duration.ZERO, 2, Duration.ofSeconds(1)));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("initialDelay must be greater than zero.");
+  }
+
+  @Test
+  public void shouldThrowWhenExponentialBackoffFactorIsLessThanOne() {
+    final var throwable = catchThrowable(() -> RetryPolicy.builder()
+      .exponentialBackoff(Duration.ofMillis(1), 0.5, Duration.ofSeconds(1)));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("factor must be greater than or equal to one.");
+  }
+
+  @Test
+  public void shouldThrowWhenMaxDelayIsLessThanInitialDelay() {
+    final var throwable = catchThrowable(() -> RetryPolicy.builder()
+      .decorrelatedJitterBackoff(Duration.ofSeconds(2), Duration.ofSeconds(1)));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("maxDelay must be greater than or equal to initialDelay.");
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="strategy tests">
+  @Test
+  public void shouldSleepForConstantDelay() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .constantBackoff(Duration.ofMillis(100))
+      .sleeper(new TestSleeper(sleeps::add))
+      .build();
+
+    raiseExceptions(policy, 3, ArithmeticException.class);
+
+    assertThat(sleeps).containsExactly(Duration.ofMillis(100), Duration.ofMillis(100), Duration.ofMillis(100));
+  }
+
+  @Test
+  public void shouldSleepForLinearlyGrowingDelayUpToMaxDelay() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .maxRetryCount(4)
+      .linearBackoff(Duration.ofMillis(100), Duration.ofMillis(200), Duration.ofMillis(400))
+      .sleeper(new TestSleeper(sleeps::add))
+      .build();
+
+    raiseExceptions(policy, 4, ArithmeticException.class);
+
+    assertThat(sleeps).containsExactly(Duration.ofMillis(100), Duration.ofMillis(300), Duration.ofMillis(400),
+      Duration.ofMillis(400));
+  }
+
+  @Test
+  public void shouldSleepForExponentiallyGrowingDelayUpToMaxDelay() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .maxRetryCount(5)
+      .exponentialBackoff(Duration.ofMillis(100), 2, Duration.ofMillis(500))
+      .sleeper(new TestSleeper(sleeps::add))
+      .build();
+
+    raiseExceptions(policy, 5, ArithmeticException.class);
+
+    assertThat(sleeps).containsExactly(Duration.ofMillis(100), Duration.ofMillis(200), Duration.ofMillis(400),
+      Duration.ofMillis(500), Duration.ofMillis(500));
+  }
+
+  @Test
+  public void shouldSleepForUpToExponentialDelayWithFullJitter() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .maxRetryCount(100)
+      .exponentialBackoffWithFullJitter(Duration.ofMillis(100), 2, Duration.ofSeconds(1))
+      .sleeper(new TestSleeper(sleeps::add))
+      .build();
+
+    raiseExceptions(policy, 100, ArithmeticException.class);
+
+    assertThat(sleeps.subList(0, 3)).satisfiesExactly(
+      d -> assertThat(d).isBetween(Duration.ZERO, Duration.ofMillis(100)),
+      d -> assertThat(d).isBetween(Duration.ZERO, Duration.ofMillis(200)),
+      d -> assertThat(d).isBetween(Duration.ZERO, Duration.ofMillis(400)));
+    assertThat(sleeps).allSatisfy(d -> assertThat(d).isBetween(Duration.ZERO, Duration.ofSeconds(1)));
+    assertThat(sleeps).doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void shouldSleepForDecorrelatedJitterDelayUpToMaxDelay() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .maxRetryCount(100)
+      .decorrelatedJitterBackoff(Duration.ofMillis(100), Duration.ofSeconds(1))
+      .sleeper(new TestSleeper(sleeps::add))
+      .build();
+
+    raiseExceptions(policy, 100, ArithmeticException.class);
+
+    assertThat(sleeps.get(0)).isBetween(Duration.ofMillis(100), Duration.ofMillis(300));
+    assertThat(sleeps.subList(0, 10)).doesNotHaveDuplicates();
+    for (var i = 1; i < sleeps.size(); i++) {
+      final var bound = sleeps.get(i - 1).multipliedBy(3);
+      assertThat(sleeps.get(i)).isBetween(Duration.ofMillis(100),
+        bound.compareTo(Duration.ofSeconds(1)) < 0 ? bound : Duration.ofSeconds(1));
+    }
+  }
+
+  @Test
+  public void shouldJitterFirstDecorrelatedJitterDelay() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .maxRetryCount(1)
+      .decorrelatedJitterBackoff(Duration.ofMillis(100), Duration.ofSeconds(1))
+      .sleeper(new TestSleeper(sleeps::add))
+      .build();
+
+    for (var i = 0; i < 10; i++) {
+      raiseExceptions(policy, 1, ArithmeticException.class);
+    }
+
+    assertThat(sleeps).hasSize(10)
+      .allSatisfy(d -> assertThat(d).isBetween(Duration.ofMillis(100), Duration.ofMillis(300)))
+      .doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void shouldPassBackoffDelayToOnRetry() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .maxRetryCount(2)
+      .exponentialBackoff(Duration.ofMillis(100), 2, Duration.ofSeconds(1))
+      .onRetry(event -> sleeps.add(event.sleepDuration()))
+      .sleeper(new TestSleeper(d -> {
+      }))
+      .build();
+
+    raiseExceptions(policy, 2, ArithmeticException.class);
+
+    assertThat(sleeps).containsExactly(Duration.ofMillis(100), Duration.ofMillis(200));
+  }
+
+  @Test
+  public void shouldUseLastConfiguredSleepDurations() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .maxRetryCount(1)
+      .constantBackoff(Duration.ofMillis(100))
+      .sleepDurationProvider(event -> Duration.ofMillis(200))
+      .sleeper(new TestSleeper(sleeps::add))
+      .build();
+
+    raiseExceptions(policy, 1, ArithmeticException.class);
+
+    assertThat(sleeps).containsExactly(Duration.ofMillis(200));
+  }
+
+  @Test
+  public void shouldSleepForBackoffDelayBetweenAsyncRetries() {
+    final var sleeps = new CopyOnWriteArrayList<Duration>();
+    final var attempts = new AtomicInteger();
+    final var policy = AsyncRetryPolicy.<Result>builder()
+      .handleResult(Result.FAULT)
+      .exponentialBackoff(Duration.ofMillis(1), 2, Duration.ofMillis(3))
+      .sleepScheduler((duration, task) -> {
+        sleeps.add(duration);
+        task.run();
+        return () -> false;
+      })
+      .build();
+
+    final var result = policy.execute(() -> CompletableFuture.completedFuture(
+      attempts.incrementAndGet() <= 3 ? Result.FAULT : Result.GOOD)).join();
+
+    assertThat(result).isEqualTo(Result.GOOD);
+    assertThat(sleeps).containsExactly(Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofMillis(3));
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="lazy sleep durations tests">
+  @Test
+  public void shouldRetryForAsLongAsEndlessSleepDurationsLast() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final Iterable<Duration> sleepDurations = () -> Stream.iterate(Duration.ofMillis(1), d -> d.plusMillis(1))
+      .iterator();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .sleepDurations(sleepDurations)
+      .sleeper(new TestSleeper(sleeps::add))
+      .build();
+
+    raiseExceptions(policy, 10, ArithmeticException.class);
+
+    assertThat(sleeps).hasSize(10)
+      .endsWith(Duration.ofMillis(10));
+  }
+
+  @Test
+  public void shouldStopRetryingWhenLazySleepDurationsRunOut() {
+    final Iterable<Duration> sleepDurations = () -> Stream.of(Duration.ofMillis(1), Duration.ofMillis(2)).iterator();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .sleepDurations(sleepDurations)
+      .sleeper(new TestSleeper(d -> {
+      }))
+      .build();
+
+    final var throwable = catchThrowable(() -> raiseExceptions(policy, 3, ArithmeticException.class));
+
+    assertThat(throwable).isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  public void shouldSleepForSameLazySleepDurationsOnEveryExecution() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final Iterable<Duration> sleepDurations = () -> Stream.iterate(Duration.ofMillis(1), d -> d.plusMillis(1))
+      .iterator();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .sleepDurations(sleepDurations)
+      .sleeper(new TestSleeper(sleeps::add))
+      .build();
+
+    raiseExceptions(policy, 2, ArithmeticException.class);
+    raiseExceptions(policy, 3, ArithmeticException.class);
+
+    assertThat(sleeps).containsExactly(Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofMillis(1),
+      Duration.ofMillis(2), Duration.ofMillis(3));
+  }
+  //</editor-fold>
+}
@@ -0,0 +1,220 @@
+package htnl5.yarl.retry;
+
+import htnl5.yarl.helpers.Result;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static htnl5.yarl.helpers.PolicyUtils.raiseExceptions;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class RetryBudgetTest {
+  //<editor-fold desc="configuration tests">
+  @Test
+  public void shouldThrowWhenRetryRatioIsNegative() {
+    final var throwable = catchThrowable(() -> new RetryBudget(-0.1, 10));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("retryRatio must be greater than or equal to zero.");
+  }
+
+  @Test
+  public void shouldThrowWhenRetryRatioIsTooSmallToRefillBudget() {
+    final var throwable = catchThrowable(() -> new RetryBudget(0.0001, 10));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("retryRatio must be zero or at least 0.0005.");
+  }
+
+  @Test
+  public void shouldThrowWhenMaxRetriesIsZero() {
+    final var throwable = catchThrowable(() -> new RetryBudget(0.1, 0));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("maxRetries must be greater than zero.");
+  }
+
+  @Test
+  public void shouldThrowWhenRetryBudgetIsNull() {
+    final var throwable = catchThrowable(() -> RetryPolicy.builder().retryBudget(null));
+
+    assertThat(throwable).isInstanceOf(NullPointerException.class)
+      .hasMessage("retryBudget must not be null.");
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="budget tests">
+  @Test
+  public void shouldRetryWhileBudgetLasts() throws Throwable {
+    final var budget = new RetryBudget(0, 3);
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .retryBudget(budget)
+      .build();
+
+    raiseExceptions(policy, 3, ArithmeticException.class);
+
+    assertThat(budget.getAvailableRetries()).isZero();
+    assertThat(budget.getRetriesAllowed()).isEqualTo(3);
+    assertThat(budget.getRetriesRejected()).isZero();
+  }
+
+  @Test
+  public void shouldNotRetryWhenBudgetIsExhausted() {
+    final var budget = new RetryBudget(0, 2);
+    final var attempts = new AtomicInteger();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .retryBudget(budget)
+      .build();
+
+    final var throwable = catchThrowable(() -> policy.execute(() -> {
+      attempts.incrementAndGet();
+      throw new ArithmeticException();
+    }));
+
+    assertThat(throwable).isInstanceOf(ArithmeticException.class);
+    assertThat(attempts).hasValue(3);
+    assertThat(budget.getRetriesRejected()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldShareBudgetBetweenPolicies() {
+    final var budget = new RetryBudget(0, 2);
+    final var policy1 = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .retryBudget(budget)
+      .build();
+    final var policy2 = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .retryBudget(budget)
+      .build();
+    final var attempts = new AtomicInteger();
+
+    catchThrowable(() -> raiseExceptions(policy1, 2, ArithmeticException.class));
+    final var throwable = catchThrowable(() -> policy2.execute(() -> {
+      attempts.incrementAndGet();
+      throw new ArithmeticException();
+    }));
+
+    assertThat(throwable).isInstanceOf(ArithmeticException.class);
+    assertThat(attempts).hasValue(1);
+  }
+
+  @Test
+  public void shouldRefillBudgetFromFirstAttempts() throws Throwable {
+    final var budget = new RetryBudget(0.5, 1);
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .retryBudget(budget)
+      .build();
+
+    raiseExceptions(policy, 1, ArithmeticException.class);
+    final var drained = budget.getAvailableRetries();
+    policy.execute(() -> null);
+    final var halfRefilled = budget.getAvailableRetries();
+    policy.execute(() -> null);
+
+    assertThat(drained).isZero();
+    assertThat(halfRefilled).isZero();
+    assertThat(budget.getAvailableRetries()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldRefillBudgetNoFurtherThanMaxRetriesWithVeryLargeRetryRatio() throws Throwable {
+    final var budget = new RetryBudget(1e300, 2);
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .retryBudget(budget)
+      .build();
+
+    raiseExceptions(policy, 2, ArithmeticException.class);
+    policy.execute(() -> null);
+    final var refilled = budget.getAvailableRetries();
+    raiseExceptions(policy, 2, ArithmeticException.class);
+
+    assertThat(refilled).isEqualTo(2);
+    assertThat(budget.getRetriesRejected()).isZero();
+  }
+
+  @Test
+  public void shouldTellOnRetryWhenBudgetIsExhausted() {
+    final var events = new ArrayList<RetryEvent<?>>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .retryBudget(new RetryBudget(0, 1))
+      .onRetry(events::add)
+      .build();
+
+    catchThrowable(() -> raiseExceptions(policy, 2, ArithmeticException.class));
+
+    assertThat(events).hasSize(2);
+    assertThat(events.get(0).budgetExhausted()).isFalse();
+    assertThat(events.get(1).budgetExhausted()).isTrue();
+    assertThat(events.get(1).tryCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldNotRetryAsyncWhenBudgetIsExhausted() {
+    final var budget = new RetryBudget(0, 1);
+    final var events = new ArrayList<RetryEvent<?>>();
+    final var attempts = new AtomicInteger();
+    final var policy = AsyncRetryPolicy.<Result>builder()
+      .handleResult(Result.FAULT)
+      .retryBudget(budget)
+      .onRetry(events::add)
+      .executor(Runnable::run)
+      .build();
+
+    final var result = policy.execute(() -> {
+      attempts.incrementAndGet();
+      return CompletableFuture.completedFuture(Result.FAULT);
+    }).join();
+
+    assertThat(result).isEqualTo(Result.FAULT);
+    assertThat(attempts).hasValue(2);
+    assertThat(events).extracting(RetryEvent::budgetExhausted).containsExactly(false, true);
+  }
+
+  @Test
+  public void shouldNeverAllowMoreRetriesThanBudgetHoldsUnderConcurrency() throws InterruptedException {
+    final var budget = new RetryBudget(0, 1_000);
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .retryBudget(budget)
+      .build();
+    final var attempts = new AtomicInteger();
+    final var start = new CountDownLatch(1);
+    final var threads = new ArrayList<Thread>();
+    for (var i = 0; i < 8; i++) {
+      final var thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        for (var j = 0; j < 1_000; j++) {
+          catchThrowable(() -> policy.execute(() -> {
+            attempts.incrementAndGet();
+            throw new ArithmeticException();
+          }));
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.countDown();
+    for (final var thread : threads) {
+      thread.join();
+    }
+
+    assertThat(attempts).hasValue(8_000 + 1_000);
+    assertThat(budget.getRetriesAllowed()).isEqualTo(1_000);
+  }
+  //</editor-fold>
+}
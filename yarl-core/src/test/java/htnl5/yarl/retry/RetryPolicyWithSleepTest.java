@@ -8,6 +8,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -280,6 +282,95 @@ public class RetryPolicyWithSleepTest {
     assertThat(totalTimeSlept.get()).isEqualTo(Duration.ZERO);
   }
 
+  @Test
+  public void shouldSleepForSameDurationsOnEveryExecution() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .sleepDurations(Duration.ofSeconds(1), Duration.ofSeconds(2))
+      .sleeper(new TestSleeper(sleeps::add))
+      .build();
+
+    raiseExceptions(policy, 2, ArithmeticException.class);
+    raiseExceptions(policy, 2, ArithmeticException.class);
+
+    assertThat(sleeps).containsExactly(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(1),
+      Duration.ofSeconds(2));
+  }
+
+  @Test
+  public void shouldSleepForLastDurationOnRetriesPastSleepDurations() throws Throwable {
+    final var sleeps = new ArrayList<Duration>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .sleepDurations(List.of(Duration.ofSeconds(1), Duration.ofSeconds(2)))
+      .maxRetryCount(4)
+      .sleeper(new TestSleeper(sleeps::add))
+      .build();
+
+    raiseExceptions(policy, 4, ArithmeticException.class);
+
+    assertThat(sleeps).containsExactly(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(2),
+      Duration.ofSeconds(2));
+  }
+
+  @Test
+  public void shouldSleepForEveryDurationOnEachOfConcurrentExecutions() throws InterruptedException {
+    final var sleepsByThread = new ConcurrentHashMap<Thread, List<Duration>>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .sleepDurations(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(3))
+      .sleeper(new TestSleeper(d -> sleepsByThread.computeIfAbsent(Thread.currentThread(), t -> new ArrayList<>())
+        .add(d)))
+      .build();
+    final var start = new CountDownLatch(1);
+    final var threads = new ArrayList<Thread>();
+    for (var i = 0; i < 8; i++) {
+      final var thread = new Thread(() -> {
+        try {
+          start.await();
+          for (var j = 0; j < 100; j++) {
+            raiseExceptions(policy, 3, ArithmeticException.class);
+          }
+        } catch (final Throwable e) {
+          throw new RuntimeException(e);
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.countDown();
+    for (final var thread : threads) {
+      thread.join();
+    }
+
+    assertThat(sleepsByThread).hasSize(8);
+    assertThat(sleepsByThread.values()).allSatisfy(sleeps -> {
+      assertThat(sleeps).hasSize(300);
+      for (var i = 0; i < sleeps.size(); i++) {
+        assertThat(sleeps.get(i)).isEqualTo(Duration.ofSeconds(i % 3 + 1));
+      }
+    });
+  }
+
+  @Test
+  public void shouldNotSleepWhenNoSleepDurationsAreSpecified() throws Throwable {
+    final var totalTimeSlept = new AtomicReference<>(Duration.ZERO);
+    final var sleeper = new TestSleeper(d -> totalTimeSlept.accumulateAndGet(d, Duration::plus));
+    final var actualSleepDurations = new ArrayList<Duration>();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .onRetry(event -> actualSleepDurations.add(event.sleepDuration()))
+      .sleeper(sleeper)
+      .build();
+
+    raiseExceptions(policy, 3, ArithmeticException.class);
+
+    assertThat(actualSleepDurations).containsExactly(Duration.ZERO, Duration.ZERO, Duration.ZERO);
+    assertThat(totalTimeSlept.get()).isEqualTo(Duration.ZERO);
+  }
+
   @Test
   public void shouldCallOnRetryOnEachRetryWithTheCurrentDurations() throws Throwable {
     final var expectedSleepDurations =
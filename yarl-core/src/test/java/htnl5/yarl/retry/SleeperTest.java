@@ -0,0 +1,104 @@
+package htnl5.yarl.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static htnl5.yarl.helpers.PolicyUtils.raiseExceptions;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class SleeperTest {
+  //<editor-fold desc="configuration tests">
+  @Test
+  public void shouldThrowWhenSleeperIsNull() {
+    final var throwable = catchThrowable(() -> RetryPolicy.builder().sleeper(null));
+
+    assertThat(throwable).isInstanceOf(NullPointerException.class)
+      .hasMessage("sleeper must not be null.");
+  }
+
+  @Test
+  public void shouldThrowWhenManagedSleeperIsNull() {
+    final var throwable = catchThrowable(() -> Sleeper.managed(null));
+
+    assertThat(throwable).isInstanceOf(NullPointerException.class)
+      .hasMessage("sleeper must not be null.");
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="sleeping tests">
+  @Test
+  public void shouldParkForSubMillisecondDuration() throws InterruptedException {
+    final var startedAt = System.nanoTime();
+
+    Sleeper.parking().sleep(Duration.ofNanos(700_000));
+
+    assertThat(System.nanoTime() - startedAt).isGreaterThanOrEqualTo(700_000);
+  }
+
+  @Test
+  public void shouldSleepForSubMillisecondDurationByDefault() throws Throwable {
+    final var startedAt = System.nanoTime();
+    final var policy = RetryPolicy.builder()
+      .handle(ArithmeticException.class)
+      .sleepDurations(Duration.ofNanos(300_000), Duration.ofNanos(300_000), Duration.ofNanos(300_000))
+      .build();
+
+    raiseExceptions(policy, 3, ArithmeticException.class);
+
+    assertThat(System.nanoTime() - startedAt).isGreaterThanOrEqualTo(900_000);
+  }
+
+  @Test
+  public void shouldSleepForDurationWithThreadSleep() throws InterruptedException {
+    final var startedAt = System.nanoTime();
+
+    Sleeper.threadSleep().sleep(Duration.ofMillis(5));
+
+    assertThat(System.nanoTime() - startedAt).isGreaterThanOrEqualTo(Duration.ofMillis(5).toNanos());
+  }
+
+  @Test
+  public void shouldThrowWhenInterruptedWhileParked() throws InterruptedException {
+    final var thrown = new AtomicReference<Throwable>();
+    final var thread = new Thread(() -> thrown.set(catchThrowable(() ->
+      Sleeper.system().sleep(Duration.ofMinutes(1)))));
+
+    thread.start();
+    thread.interrupt();
+    thread.join(5_000);
+
+    assertThat(thread.isAlive()).isFalse();
+    assertThat(thrown.get()).isInstanceOf(InterruptedException.class);
+  }
+
+  @Test
+  public void shouldLetForkJoinPoolRunOtherTasksWhileWorkerSleeps() throws Exception {
+    final var pool = new ForkJoinPool(1);
+    try {
+      final var sleeping = new CountDownLatch(1);
+      final var sleeper = Sleeper.managed(duration -> {
+        sleeping.countDown();
+        Sleeper.parking().sleep(duration);
+      });
+      final var sleepingTask = pool.submit(() -> {
+        sleeper.sleep(Duration.ofSeconds(2));
+        return null;
+      });
+      assertThat(sleeping.await(5, TimeUnit.SECONDS)).isTrue();
+
+      final var otherTask = pool.submit(() -> 42);
+
+      assertThat(otherTask.get(1, TimeUnit.SECONDS)).isEqualTo(42);
+      assertThat(sleepingTask.isDone()).isFalse();
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+  //</editor-fold>
+}
@@ -0,0 +1,63 @@
+package htnl5.yarl.utilities;
+
+import htnl5.yarl.helpers.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class TickerTest {
+  @Test
+  public void shouldReadSystemTickerMonotonicallyFromZero() {
+    final var ticker = Ticker.system();
+
+    final var first = ticker.nanos();
+    final var second = ticker.nanos();
+
+    assertThat(first).isNotNegative();
+    assertThat(second).isGreaterThanOrEqualTo(first);
+  }
+
+  @Test
+  public void shouldAdvanceCoarseTicker() throws InterruptedException {
+    final var ticker = Ticker.coarse(Duration.ofMillis(1));
+    final var first = ticker.nanos();
+
+    final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (ticker.nanos() == first && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+
+    assertThat(ticker.nanos()).isGreaterThan(first);
+  }
+
+  @Test
+  public void shouldShareCoarseTickersOfSameResolution() {
+    assertThat(Ticker.coarse(Duration.ofMillis(5))).isSameAs(Ticker.coarse(Duration.ofMillis(5)));
+  }
+
+  @Test
+  public void shouldThrowWhenCoarseTickerResolutionIsZero() {
+    final var throwable = catchThrowable(() -> Ticker.coarse(Duration.ZERO));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("resolution must be greater than zero.");
+  }
+
+  @Test
+  public void shouldFollowClock() {
+    final var instant = Instant.now();
+    final var clock = new MutableClock(instant, ZoneId.systemDefault());
+    final var ticker = Ticker.of(clock);
+
+    clock.setInstant(instant.plusSeconds(1));
+
+    assertThat(ticker.millis()).isEqualTo(instant.plusSeconds(1).toEpochMilli());
+    assertThat(ticker.nanos()).isEqualTo(instant.plusSeconds(1).toEpochMilli() * 1_000_000L);
+  }
+}